@@ -0,0 +1,44 @@
+package lls.tictactoe.benchmarks;
+
+import lls.tictactoe.Tile;
+import lls.tictactoe.engine.Difficulty;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a complete AI move of every difficulty, the way the UI asks for it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DifficultyBenchmark {
+
+    @Param
+    public Difficulty difficulty;
+
+    @Param
+    public Position position;
+
+    private List<Tile> tiles;
+    private Tile.State aiStateType;
+    private SplittableRandom random;
+
+    @Setup
+    public void setup() {
+        tiles = position.tiles();
+        aiStateType = position.toMove();
+        random = new SplittableRandom(42);
+    }
+
+    @Benchmark
+    public int chooseMove() {
+        return difficulty.chooseMove(tiles, aiStateType, random);
+    }
+
+}
@@ -0,0 +1,54 @@
+package lls.tictactoe.benchmarks;
+
+import lls.tictactoe.Minimax;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the Minimax search, both with the shared transposition table already filled
+ * and with an empty table, i.e. the cost of the very first search in a JVM.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MinimaxBenchmark {
+
+    @Param
+    public Position position;
+
+    private int aiMask;
+    private int playerMask;
+
+    @Setup
+    public void setup() {
+        aiMask = position.mask(position.toMove());
+        playerMask = position.mask(position.lastMoved());
+    }
+
+    @Benchmark
+    public int getBestMoveWarm() {
+        return Minimax.getBestMove(aiMask, playerMask);
+    }
+
+    @Benchmark
+    public int getBestMoveCold(ColdTable coldTable) {
+        return Minimax.getBestMove(aiMask, playerMask);
+    }
+
+    /**
+     * Empties the shared transposition table before every single search.
+     */
+    @State(Scope.Thread)
+    public static class ColdTable {
+
+        @Setup(Level.Invocation)
+        public void clear() {
+            Minimax.getTranspositionTable().clear();
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package lls.tictactoe.benchmarks;
+
+import lls.tictactoe.Minimax;
+import lls.tictactoe.engine.Board;
+import lls.tictactoe.engine.ConcurrentTranspositionTable;
+import lls.tictactoe.engine.DeepeningSearch;
+import lls.tictactoe.engine.SearchLimits;
+import lls.tictactoe.engine.SearchResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the parallel root split of the searches with the sequential search: 1 thread is the sequential search,
+ * more threads split the root moves across a pool of that size.
+ * <p>
+ * Minimax searches the empty classic board with an empty transposition table. The deepening search solves
+ * a 4x4 board with 3 in a row from two marks in the middle, with an emptied transposition table every time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelSearchBenchmark {
+
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    private ForkJoinPool pool;
+    private Board board;
+    private DeepeningSearch search;
+
+    @Setup
+    public void setup() {
+        pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        board = new Board(4, 4, 3);
+        board.play(board.cell(1, 1), Board.X);
+        board.play(board.cell(2, 2), Board.O);
+        search = new DeepeningSearch(SearchLimits.UNLIMITED, pool, new ConcurrentTranspositionTable());
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) pool.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTables() {
+        Minimax.getTranspositionTable().clear();
+        search.getTranspositionTable().clear();
+    }
+
+    @Benchmark
+    public int minimax() {
+        return pool == null ? Minimax.getBestMove(0, 0) : Minimax.getBestMove(0, 0, pool);
+    }
+
+    @Benchmark
+    public SearchResult deepening() {
+        return search.search(board, Board.X);
+    }
+
+}
@@ -0,0 +1,76 @@
+package lls.tictactoe.benchmarks;
+
+import lls.tictactoe.Tile;
+import lls.tictactoe.engine.Bitboard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The positions the benchmarks are run on.
+ * Each position is written as nine characters, one per tile position, with '.' for an empty tile.
+ */
+public enum Position {
+
+    /**
+     * The empty board, the most expensive position to search.
+     */
+    EMPTY("........."),
+
+    /**
+     * Two moves into the game.
+     */
+    MID_GAME("X...O...."),
+
+    /**
+     * Three empty tiles left, X has to block O.
+     */
+    NEAR_END("XOX.OXO..");
+
+    private final String cells;
+
+    Position(String cells) {
+        this.cells = cells;
+    }
+
+    /**
+     * @return The nine tiles of the position, sorted by their position.
+     */
+    public List<Tile> tiles() {
+        List<Tile> tiles = new ArrayList<>();
+        for (int i = 0; i < cells.length(); i++) {
+            Tile tile = new Tile(i);
+            switch (cells.charAt(i)) {
+                case 'X' -> tile.changeState(Tile.State.X);
+                case 'O' -> tile.changeState(Tile.State.O);
+                default -> {
+                }
+            }
+            tiles.add(tile);
+        }
+        return tiles;
+    }
+
+    /**
+     * @return The player to move, X moves first.
+     */
+    public Tile.State toMove() {
+        return mask(Tile.State.X) == mask(Tile.State.O) ? Tile.State.X : Tile.State.O;
+    }
+
+    /**
+     * @return The player who made the last move.
+     */
+    public Tile.State lastMoved() {
+        return toMove().equals(Tile.State.X) ? Tile.State.O : Tile.State.X;
+    }
+
+    /**
+     * @param state X or O.
+     * @return The bitboard of the tiles in that state.
+     */
+    public int mask(Tile.State state) {
+        return Bitboard.mask(tiles(), state);
+    }
+
+}
@@ -0,0 +1,59 @@
+package lls.tictactoe.benchmarks;
+
+import lls.tictactoe.Tile;
+import lls.tictactoe.engine.Difficulty;
+import lls.tictactoe.engine.Rules;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the rule checks which run after every move, and the threat lookup of the medium AI.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RulesBenchmark {
+
+    @Param
+    public Position position;
+
+    private List<Tile> tiles;
+    private int ownMask;
+    private int opponentMask;
+    private SplittableRandom random;
+
+    @Setup
+    public void setup() {
+        tiles = position.tiles();
+        ownMask = position.mask(position.toMove());
+        opponentMask = position.mask(position.lastMoved());
+        random = new SplittableRandom(42);
+    }
+
+    @Benchmark
+    public Tile.State checkIfGameEnded() {
+        return Rules.checkIfGameEnded(tiles);
+    }
+
+    @Benchmark
+    public int mediumMove() {
+        return Difficulty.mediumMove(ownMask, opponentMask, random);
+    }
+
+    @Benchmark
+    public boolean isDraw() {
+        return Rules.isDraw(tiles);
+    }
+
+    @Benchmark
+    public Tile tileClone() {
+        return tiles.getFirst().clone();
+    }
+
+}
@@ -0,0 +1,319 @@
+package lls.tictactoe;
+
+import lls.tictactoe.engine.Bitboard;
+import lls.tictactoe.engine.Symmetry;
+import lls.tictactoe.engine.TranspositionTable;
+import lls.tictactoe.instrumentation.EngineMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Minimax {
+
+    /**
+     * The order in which moves are tried: the center, then the corners, then the edges.
+     * Strong moves first make the alpha-beta cutoffs happen as early as possible.
+     */
+    private static final int[] MOVE_ORDER = {4, 0, 2, 6, 8, 1, 3, 5, 7};
+
+    /**
+     * A value outside the range of all possible position values.
+     */
+    private static final int INFINITY = Bitboard.CELLS + 2;
+
+    /**
+     * The table of searched positions.
+     * It is shared by all searches in this JVM, so every position only has to be searched once.
+     * Every entry is a single byte, so concurrent searches can read and write it without locking.
+     */
+    private static final TranspositionTable TRANSPOSITION_TABLE = new TranspositionTable();
+
+    private static final LongAdder SEARCHES = new LongAdder();
+    private static final LongAdder NODES = new LongAdder();
+    private static final LongAdder CUTOFFS = new LongAdder();
+
+    /**
+     * Determines the best move for the AI.
+     * <p>
+     * The position is given as two bitboards (see {@link Bitboard}), so the search itself
+     * never touches the UI objects and does not allocate anything per node.
+     * Of several winning moves the fastest win is chosen, of several losing moves the slowest loss.
+     *
+     * @param aiMask     The mask of all tiles occupied by the AI.
+     * @param playerMask The mask of all tiles occupied by the player.
+     * @return The position of the best move, or -1 if the board is full.
+     */
+    public static int getBestMove(int aiMask, int playerMask) {
+        return analyze(aiMask, playerMask).move();
+    }
+
+    /**
+     * Determines the best move of a position together with its value and the effort of the search.
+     * <p>
+     * The number of nodes depends on what earlier searches already stored in the shared transposition table,
+     * so it is only a measure of the work done by this call.
+     *
+     * @param ownMask      The mask of the player to move.
+     * @param opponentMask The mask of the player who made the last move.
+     * @return The best move (-1 if the game is already over), the value of the position as returned by
+     * {@link #evaluate(int, int)} and the number of positions visited.
+     */
+    public static Analysis analyze(int ownMask, int opponentMask) {
+        Search search = new Search();
+        int bestMove = -1;
+        int alpha = -INFINITY;
+
+        // If the game is already over, there is no move to choose
+        int emptyCells = Integer.bitCount(Bitboard.empty(ownMask, opponentMask));
+        if (Bitboard.isWin(opponentMask)) {
+            alpha = -(emptyCells + 1);
+        } else if (Bitboard.isWin(ownMask)) {
+            alpha = emptyCells + 1;
+        } else {
+            for (int move : MOVE_ORDER) {
+                int bit = Bitboard.bit(move);
+                if (((ownMask | opponentMask) & bit) != 0) continue;
+                // After the move it is the opponent's turn, so the value has to be negated
+                int value = -search.negamax(opponentMask, ownMask | bit, -INFINITY, -alpha);
+                if (value > alpha) {
+                    alpha = value;
+                    bestMove = move;
+                }
+            }
+            // A full board is a draw
+            if (bestMove == -1) alpha = 0;
+        }
+
+        search.finish();
+        return new Analysis(bestMove, alpha, search.nodes);
+    }
+
+    /**
+     * Determines the best move for the AI by searching the root moves in parallel.
+     * <p>
+     * Every empty cell is searched as an independent task on the given pool. All tasks share the
+     * transposition table, so positions solved by one task are reused by the others, and the best value found so
+     * far, so later tasks can cut off moves which are worse. The result is the same as the one of
+     * {@link #getBestMove(int, int)}.
+     *
+     * @param aiMask     The mask of all tiles occupied by the AI.
+     * @param playerMask The mask of all tiles occupied by the player.
+     * @param pool       The pool to search on. Its parallelism determines how many root moves are searched at the same time.
+     * @return The position of the best move, or -1 if the board is full.
+     */
+    public static int getBestMove(int aiMask, int playerMask, ForkJoinPool pool) {
+        if (pool.getParallelism() == 1) return getBestMove(aiMask, playerMask);
+
+        int[] moves = new int[Bitboard.CELLS];
+        AtomicInteger sharedAlpha = new AtomicInteger(-INFINITY);
+        List<ForkJoinTask<Integer>> tasks = new ArrayList<>(Bitboard.CELLS);
+
+        for (int move : MOVE_ORDER) {
+            int bit = Bitboard.bit(move);
+            if (((aiMask | playerMask) & bit) != 0) continue;
+            moves[tasks.size()] = move;
+            tasks.add(pool.submit(() -> {
+                // One below the best value so far, so a move as good as the best one still gets its exact value
+                // and the first of several equal moves is chosen, like in the sequential search
+                int alpha = Math.max(-INFINITY, sharedAlpha.get() - 1);
+                Search search = new Search();
+                int value = -search.negamax(playerMask, aiMask | bit, -INFINITY, -alpha);
+                search.finish();
+                // A value at or below alpha is only an upper bound, which is always below the best value
+                sharedAlpha.accumulateAndGet(value, Math::max);
+                return value;
+            }));
+        }
+
+        int bestMove = -1;
+        int bestValue = Integer.MIN_VALUE;
+        for (int i = 0; i < tasks.size(); i++) {
+            int value = tasks.get(i).join();
+            if (value > bestValue) {
+                bestValue = value;
+                bestMove = moves[i];
+            }
+        }
+
+        return bestMove;
+    }
+
+    /**
+     * Determines the game-theoretic value of a position.
+     * <p>
+     * A win is worth one more than the number of cells which are still empty after the winning move,
+     * so faster wins have higher values. A loss is worth the negated value of the opponent's win.
+     *
+     * @param ownMask      The mask of the player to move.
+     * @param opponentMask The mask of the player who made the last move.
+     * @return A positive value if the player to move wins, 0 for a draw and a negative value if the player to move loses.
+     */
+    public static int evaluate(int ownMask, int opponentMask) {
+        Search search = new Search();
+        int value = search.negamax(ownMask, opponentMask, -INFINITY, INFINITY);
+        search.finish();
+        return value;
+    }
+
+    /**
+     * Determines the value of every move of a position in a single search, so the positions the moves have
+     * in common are only searched once.
+     *
+     * @param ownMask      The mask of the player to move.
+     * @param opponentMask The mask of the player who made the last move.
+     * @return For every cell, the value of playing it for the player to move (see {@link #evaluate(int, int)}),
+     * or {@link Integer#MIN_VALUE} if the cell is occupied.
+     */
+    public static int[] evaluateMoves(int ownMask, int opponentMask) {
+        Search search = new Search();
+        int[] values = new int[Bitboard.CELLS];
+        for (int move = 0; move < Bitboard.CELLS; move++) {
+            int bit = Bitboard.bit(move);
+            if (((ownMask | opponentMask) & bit) != 0) {
+                values[move] = Integer.MIN_VALUE;
+                continue;
+            }
+            // After the move it is the opponent's turn, so the value has to be negated
+            values[move] = -search.negamax(opponentMask, ownMask | bit, -INFINITY, INFINITY);
+        }
+        search.finish();
+        return values;
+    }
+
+    /**
+     * @return The transposition table shared by all searches, e.g. to inspect its hit and miss counts.
+     */
+    public static TranspositionTable getTranspositionTable() {
+        return TRANSPOSITION_TABLE;
+    }
+
+    /**
+     * @return The node counts of all searches since the start of the JVM or the last {@link #resetStatistics()}.
+     */
+    public static Statistics getStatistics() {
+        return new Statistics(SEARCHES.sum(), NODES.sum(), CUTOFFS.sum());
+    }
+
+    /**
+     * Resets the node counts returned by {@link #getStatistics()}.
+     */
+    public static void resetStatistics() {
+        SEARCHES.reset();
+        NODES.reset();
+        CUTOFFS.reset();
+    }
+
+    /**
+     * The result of {@link #analyze(int, int)}.
+     *
+     * @param move  The position of the best move, or -1 if the game is already over.
+     * @param value The value of the position for the player to move.
+     * @param nodes The number of positions visited by the search.
+     */
+    public record Analysis(int move, int value, long nodes) {
+    }
+
+    /**
+     * Node counts of the Minimax searches.
+     *
+     * @param searches The number of searches.
+     * @param nodes    The number of positions visited by these searches.
+     * @param cutoffs  The number of positions whose remaining moves were pruned.
+     */
+    public record Statistics(long searches, long nodes, long cutoffs) {
+    }
+
+    /**
+     * The state of a single search.
+     * The counters are only published once the search is finished, so the recursion does not touch shared state.
+     */
+    private static final class Search {
+
+        private long nodes;
+        private long cutoffs;
+        private long cacheHits;
+        private int ply;
+        private int maxDepth;
+
+        /**
+         * Searches a position with alpha-beta pruning.
+         *
+         * @param ownMask      The mask of the player to move.
+         * @param opponentMask The mask of the player who made the last move.
+         * @param alpha        The value the player to move is already guaranteed.
+         * @param beta         The value the opponent is already guaranteed, negated.
+         * @return The value of the position for the player to move, if it lies between alpha and beta.
+         * Otherwise, a bound which is at most alpha or at least beta.
+         */
+        private int negamax(int ownMask, int opponentMask, int alpha, int beta) {
+            // Track the ply around the actual search, so every return path leaves it unchanged
+            if (++ply > maxDepth) maxDepth = ply;
+            int value = search(ownMask, opponentMask, alpha, beta);
+            ply--;
+            return value;
+        }
+
+        private int search(int ownMask, int opponentMask, int alpha, int beta) {
+            nodes++;
+
+            int empty = Bitboard.empty(ownMask, opponentMask);
+            if (Bitboard.isWin(opponentMask)) return -(Integer.bitCount(empty) + 1);
+            if (empty == 0) return 0;
+
+            int key = Symmetry.canonicalKey(ownMask, opponentMask);
+            int entry = TRANSPOSITION_TABLE.get(key);
+            if (entry != TranspositionTable.EMPTY) {
+                cacheHits++;
+                int value = TranspositionTable.value(entry);
+                switch (TranspositionTable.bound(entry)) {
+                    case EXACT -> {
+                        return value;
+                    }
+                    case LOWER -> alpha = Math.max(alpha, value);
+                    case UPPER -> beta = Math.min(beta, value);
+                }
+                if (alpha >= beta) return value;
+            }
+
+            int originalAlpha = alpha;
+            int best = -INFINITY;
+
+            for (int move : MOVE_ORDER) {
+                int bit = Bitboard.bit(move);
+                if ((empty & bit) == 0) continue;
+                int value = -negamax(opponentMask, ownMask | bit, -beta, -alpha);
+                if (value > best) {
+                    best = value;
+                    alpha = Math.max(alpha, value);
+                    if (alpha >= beta) {
+                        cutoffs++;
+                        break;
+                    }
+                }
+            }
+
+            TranspositionTable.Bound bound;
+            if (best <= originalAlpha) {
+                bound = TranspositionTable.Bound.UPPER;
+            } else if (best >= beta) {
+                bound = TranspositionTable.Bound.LOWER;
+            } else {
+                bound = TranspositionTable.Bound.EXACT;
+            }
+            TRANSPOSITION_TABLE.put(key, best, bound);
+            return best;
+        }
+
+        private void finish() {
+            SEARCHES.increment();
+            NODES.add(nodes);
+            CUTOFFS.add(cutoffs);
+            EngineMetrics.recordSearch(nodes, maxDepth, cacheHits);
+        }
+    }
+
+}
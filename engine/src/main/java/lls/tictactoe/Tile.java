@@ -18,6 +18,10 @@ public class Tile implements Cloneable {
         return true;
     }
 
+    public void reset() {
+        state = State.NONE;
+    }
+
     public boolean isOccupied() {
         return !state.equals(State.NONE);
     }
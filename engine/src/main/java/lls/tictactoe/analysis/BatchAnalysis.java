@@ -0,0 +1,185 @@
+package lls.tictactoe.analysis;
+
+import lls.tictactoe.Minimax;
+import lls.tictactoe.Tile;
+import lls.tictactoe.engine.Bitboard;
+import lls.tictactoe.engine.Notation;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Analyzes a file of positions, one encoded board per line (see {@link Notation}), and writes one JSON object per
+ * position, e.g. {@code {"board":"X...O....","move":2,"value":0,"nodes":57}}.
+ * <p>
+ * Usage: {@code BatchAnalysis --input file [--output file] [--threads n] [--chunk n]}. Without {@code --output},
+ * the results are written to standard output. Blank lines are skipped, invalid lines produce an object with an
+ * {@code "error"} instead of a move.
+ * <p>
+ * The input is read as a stream and cut into chunks, which are analyzed in parallel. The results are written in
+ * the order of the input, and at most two chunks per thread are in flight at any time, so the memory use does not
+ * depend on the size of the file.
+ */
+public final class BatchAnalysis {
+
+    private final int threads;
+    private final int chunkSize;
+
+    private final LongAdder positions = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+
+    /**
+     * @param threads   The number of worker threads.
+     * @param chunkSize The number of lines a worker analyzes in one go.
+     */
+    public BatchAnalysis(int threads, int chunkSize) {
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    static void main(String[] args) throws IOException, InterruptedException {
+        Path input = null;
+        Path output = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int chunkSize = 4096;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--input" -> input = Path.of(args[i + 1]);
+                case "--output" -> output = Path.of(args[i + 1]);
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                case "--chunk" -> chunkSize = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (input == null) throw new IllegalArgumentException("Missing option: --input");
+
+        BatchAnalysis analysis = new BatchAnalysis(threads, chunkSize);
+        long startTime = System.nanoTime();
+        try (BufferedReader in = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             Writer out = output == null
+                     ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                     : Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            analysis.run(in, out);
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        System.err.printf("%,d positions, %,d nodes, %,.0f positions/sec%n",
+                analysis.getPositions(), analysis.getNodes(), analysis.getPositions() / seconds);
+    }
+
+    /**
+     * Analyzes every line of the input and writes the results to the output.
+     *
+     * @param in  The positions, one per line.
+     * @param out The destination of the results, one per line.
+     * @throws IOException          if reading or writing fails.
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the workers.
+     */
+    public void run(BufferedReader in, Writer out) throws IOException, InterruptedException {
+        Deque<Future<String>> pending = new ArrayDeque<>();
+        try (ExecutorService workers = Executors.newFixedThreadPool(threads)) {
+            List<String> chunk = new ArrayList<>(chunkSize);
+            for (String line = in.readLine(); line != null; line = in.readLine()) {
+                chunk.add(line);
+                if (chunk.size() == chunkSize) {
+                    // Wait for the oldest chunk before reading further, so the input is never read far ahead
+                    if (pending.size() == 2 * threads) {
+                        out.write(await(pending.removeFirst()));
+                    }
+                    pending.addLast(submit(workers, chunk));
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                pending.addLast(submit(workers, chunk));
+            }
+            while (!pending.isEmpty()) {
+                out.write(await(pending.removeFirst()));
+            }
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+    }
+
+    public long getPositions() {
+        return positions.sum();
+    }
+
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    private Future<String> submit(ExecutorService workers, List<String> chunk) {
+        return workers.submit(() -> analyzeChunk(chunk));
+    }
+
+    private static String await(Future<String> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A worker failed", e.getCause());
+        }
+    }
+
+    private String analyzeChunk(List<String> lines) {
+        StringBuilder results = new StringBuilder(lines.size() * 64);
+        long chunkPositions = 0;
+        long chunkNodes = 0;
+        for (String line : lines) {
+            String board = line.strip();
+            if (board.isEmpty()) continue;
+            chunkPositions++;
+            results.append("{\"board\":\"").append(escape(board)).append('"');
+            try {
+                int xMask = Notation.mask(board, Tile.State.X);
+                int oMask = Notation.mask(board, Tile.State.O);
+                boolean xToMove = Bitboard.playerToMove(xMask, oMask) == Tile.State.X;
+                Minimax.Analysis analysis = xToMove ? Minimax.analyze(xMask, oMask) : Minimax.analyze(oMask, xMask);
+                chunkNodes += analysis.nodes();
+                results.append(",\"move\":").append(analysis.move())
+                        .append(",\"value\":").append(analysis.value())
+                        .append(",\"nodes\":").append(analysis.nodes());
+            } catch (IllegalArgumentException e) {
+                results.append(",\"error\":\"").append(escape(e.getMessage())).append('"');
+            }
+            results.append("}\n");
+        }
+        positions.add(chunkPositions);
+        nodes.add(chunkNodes);
+        return results.toString();
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                default -> {
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+
+}
@@ -0,0 +1,197 @@
+package lls.tictactoe.engine;
+
+import lls.tictactoe.Tile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Bitboard representation of the 3x3 Tic-Tac-Toe board.
+ * <p>
+ * A position is described by two 9-bit masks, one per {@link Tile.State} that is not NONE.
+ * Bit {@code n} of a mask is set if the tile with position {@code n} belongs to that player.
+ * All methods are static and operate on plain ints, so a search built on top of this class
+ * does not allocate anything per node.
+ */
+public final class Bitboard {
+
+    /**
+     * The number of cells on the board.
+     */
+    public static final int CELLS = 9;
+
+    /**
+     * A mask with every cell of the board set.
+     */
+    public static final int FULL = (1 << CELLS) - 1;
+
+    /**
+     * The masks of all eight winning lines (three rows, three columns and two diagonals).
+     */
+    private static final int[] LINES = {
+            0b000_000_111, 0b000_111_000, 0b111_000_000,
+            0b001_001_001, 0b010_010_010, 0b100_100_100,
+            0b100_010_001, 0b001_010_100
+    };
+
+    /**
+     * The number of base-3 indices, one digit (empty, first player, second player) per cell.
+     */
+    public static final int INDICES = 19683;
+
+    /**
+     * For every mask, the base-3 number which has a 1 in each digit whose bit is set.
+     */
+    private static final int[] BASE3 = new int[FULL + 1];
+
+    static {
+        for (int mask = 1; mask <= FULL; mask++) {
+            int cell = lowestCell(mask);
+            int weight = 1;
+            for (int i = 0; i < cell; i++) weight *= 3;
+            BASE3[mask] = BASE3[mask & (mask - 1)] + weight;
+        }
+    }
+
+    private Bitboard() {
+    }
+
+    /**
+     * Checks if the given mask contains a complete line.
+     *
+     * @param mask The mask of one player.
+     * @return true if the player owns all three cells of at least one line, false otherwise.
+     */
+    public static boolean isWin(int mask) {
+        for (int line : LINES) {
+            if ((mask & line) == line) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the mask of all cells that are occupied by neither player.
+     *
+     * @param first  The mask of the first player.
+     * @param second The mask of the second player.
+     * @return The mask of all empty cells.
+     */
+    public static int empty(int first, int second) {
+        return ~(first | second) & FULL;
+    }
+
+    /**
+     * Checks if every cell of the board is occupied.
+     *
+     * @param first  The mask of the first player.
+     * @param second The mask of the second player.
+     * @return true if no empty cell is left, false otherwise.
+     */
+    public static boolean isFull(int first, int second) {
+        return (first | second) == FULL;
+    }
+
+    /**
+     * Returns the single-bit mask of a cell.
+     *
+     * @param cell The position of the cell.
+     * @return The mask with only the bit of the given cell set.
+     */
+    public static int bit(int cell) {
+        return 1 << cell;
+    }
+
+    /**
+     * Returns the position of the lowest cell in the given mask.
+     *
+     * @param mask A non-empty mask.
+     * @return The position of the lowest set bit.
+     */
+    public static int lowestCell(int mask) {
+        return Integer.numberOfTrailingZeros(mask);
+    }
+
+    /**
+     * Picks one cell of a mask uniformly at random.
+     *
+     * @param mask   A non-empty mask.
+     * @param random The source of randomness.
+     * @return The position of the chosen cell.
+     */
+    public static int randomCell(int mask, RandomGenerator random) {
+        for (int skip = random.nextInt(Integer.bitCount(mask)); skip > 0; skip--) {
+            mask &= mask - 1;
+        }
+        return lowestCell(mask);
+    }
+
+    /**
+     * Determines whose turn it is. X always moves first, so this follows from the number of marks.
+     *
+     * @param xMask The mask of X.
+     * @param oMask The mask of O.
+     * @return X or O.
+     * @throws IllegalArgumentException if no game can reach the position.
+     */
+    public static Tile.State playerToMove(int xMask, int oMask) {
+        int xCount = Integer.bitCount(xMask);
+        int oCount = Integer.bitCount(oMask);
+        if (xCount == oCount) return Tile.State.X;
+        if (xCount == oCount + 1) return Tile.State.O;
+        throw new IllegalArgumentException("Impossible position: " + xCount + " X and " + oCount + " O");
+    }
+
+    /**
+     * Returns the base-3 index of a position.
+     * <p>
+     * Each cell is one digit of the index: 0 if it is empty, 1 if it belongs to the first player
+     * and 2 if it belongs to the second player. The index is always below {@link #INDICES}.
+     *
+     * @param first  The mask of the first player.
+     * @param second The mask of the second player.
+     * @return The base-3 index of the position.
+     */
+    public static int index(int first, int second) {
+        return BASE3[first] + 2 * BASE3[second];
+    }
+
+    /**
+     * Builds the tiles of a position, the inverse of {@link #mask(Iterable, Tile.State)}.
+     *
+     * @param xMask The mask of X.
+     * @param oMask The mask of O.
+     * @return The tiles of the board, sorted by their position.
+     */
+    public static List<Tile> tiles(int xMask, int oMask) {
+        List<Tile> tiles = new ArrayList<>(CELLS);
+        for (int position = 0; position < CELLS; position++) {
+            Tile tile = new Tile(position);
+            if ((xMask & bit(position)) != 0) tile.changeState(Tile.State.X);
+            if ((oMask & bit(position)) != 0) tile.changeState(Tile.State.O);
+            tiles.add(tile);
+        }
+        return tiles;
+    }
+
+    /**
+     * Builds the mask of all tiles which are in the given state.
+     * <p>
+     * This is the conversion used at the boundary between the UI, which works with {@link Tile} objects,
+     * and the engine, which only works with masks.
+     *
+     * @param tiles The tiles of the board.
+     * @param state The state to collect.
+     * @return The mask of all tiles in the given state.
+     */
+    public static int mask(Iterable<Tile> tiles, Tile.State state) {
+        int mask = 0;
+        for (Tile tile : tiles) {
+            if (tile.getState().equals(state)) {
+                mask |= bit(tile.getPosition());
+            }
+        }
+        return mask;
+    }
+
+}
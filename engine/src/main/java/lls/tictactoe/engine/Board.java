@@ -0,0 +1,332 @@
+package lls.tictactoe.engine;
+
+import lls.tictactoe.Tile;
+
+import java.util.Arrays;
+
+/**
+ * A board of any width and height on which a player wins with k marks in a row (an m,n,k-game).
+ * <p>
+ * The classic game is {@code new Board(3, 3, 3)}, but the same rules work for e.g. 7x7 with 4 in a row or
+ * 15x15 with 5 in a row. Cells are numbered row by row, {@code cell = y * width + x}. Moves are made and taken
+ * back in place with {@link #play(int, byte)} and {@link #undo(int)}, so a search can use a single instance.
+ * Wins are detected incrementally by a {@link LineTracker}.
+ */
+public final class Board {
+
+    /**
+     * The content of an empty cell.
+     */
+    public static final byte EMPTY = 0;
+
+    /**
+     * The content of a cell occupied by X, which always moves first.
+     */
+    public static final byte X = 1;
+
+    /**
+     * The content of a cell occupied by O.
+     */
+    public static final byte O = 2;
+
+    /**
+     * How far away a cell may be from the nearest mark to still count as a sensible move, see {@link #isNearMark(int)}.
+     */
+    private static final int NEIGHBOURHOOD = 2;
+
+    private final int width;
+    private final int height;
+    private final int k;
+
+    private final byte[] cells;
+
+    /**
+     * For every cell, the number of marks within {@link #NEIGHBOURHOOD} cells.
+     */
+    private final short[] marksNearby;
+
+    /**
+     * Counts the marks on every line, so a win is detected by only looking at the lines through the last move.
+     */
+    private final LineTracker lines;
+
+    private int marks;
+
+    /**
+     * The Zobrist hash of the position, see {@link #getHash()}.
+     */
+    private long hash;
+
+    /**
+     * Creates an empty board.
+     *
+     * @param width  The number of columns.
+     * @param height The number of rows.
+     * @param k      The number of marks in a row needed to win.
+     * @throws IllegalArgumentException if a dimension is not positive or k does not fit on the board.
+     */
+    public Board(int width, int height, int k) {
+        if (width < 1 || height < 1 || k < 1 || k > Math.max(width, height)) {
+            throw new IllegalArgumentException("Invalid board: " + width + "x" + height + ", k=" + k);
+        }
+        this.width = width;
+        this.height = height;
+        this.k = k;
+        this.cells = new byte[width * height];
+        this.marksNearby = new short[width * height];
+        this.lines = new LineTracker(width, height, k);
+        this.hash = mix(((long) width << 40) ^ ((long) height << 20) ^ k);
+    }
+
+    private Board(Board other) {
+        this.width = other.width;
+        this.height = other.height;
+        this.k = other.k;
+        this.cells = other.cells.clone();
+        this.marksNearby = other.marksNearby.clone();
+        this.lines = other.lines.copy();
+        this.marks = other.marks;
+        this.hash = other.hash;
+    }
+
+    /**
+     * Creates a 3x3 board from two bitboards. The position may already be won, the marks are placed without
+     * replaying a game.
+     *
+     * @param xMask The mask of all cells occupied by X.
+     * @param oMask The mask of all cells occupied by O.
+     * @return The board.
+     * @throws IllegalArgumentException if a cell is occupied by both players.
+     */
+    public static Board fromBitboards(int xMask, int oMask) {
+        if ((xMask & oMask) != 0) {
+            throw new IllegalArgumentException("Overlapping bitboards: " + xMask + ", " + oMask);
+        }
+        Board board = new Board(3, 3, 3);
+        for (int cell = 0; cell < Bitboard.CELLS; cell++) {
+            if ((xMask & Bitboard.bit(cell)) != 0) board.place(cell, X);
+            if ((oMask & Bitboard.bit(cell)) != 0) board.place(cell, O);
+        }
+        return board;
+    }
+
+    /**
+     * @param player X or O.
+     * @return The other player.
+     */
+    public static byte opponent(byte player) {
+        return (byte) (X + O - player);
+    }
+
+    /**
+     * @param state The tile state X or O.
+     * @return The corresponding cell content.
+     */
+    public static byte of(Tile.State state) {
+        return switch (state) {
+            case X -> X;
+            case O -> O;
+            case NONE -> EMPTY;
+        };
+    }
+
+    /**
+     * Places a mark on the board.
+     *
+     * @param cell   The empty cell to place the mark on.
+     * @param player X or O.
+     * @throws IllegalStateException if the cell is already occupied or the game is already over.
+     */
+    public void play(int cell, byte player) {
+        if (cells[cell] != EMPTY || lines.getWinner() != EMPTY) {
+            throw new IllegalStateException("Cannot play " + cell + " on " + this);
+        }
+        place(cell, player);
+    }
+
+    /**
+     * Places a mark on an empty cell, even if the game is already over.
+     */
+    private void place(int cell, byte player) {
+        cells[cell] = player;
+        marks++;
+        hash ^= mix((long) cell * 3 + player);
+        updateMarksNearby(cell, 1);
+        lines.place(cell, player);
+    }
+
+    /**
+     * Takes back the last mark placed on a cell.
+     * Only the most recent move may be taken back, as the game could not have continued after a win.
+     *
+     * @param cell The occupied cell to clear.
+     */
+    public void undo(int cell) {
+        hash ^= mix((long) cell * 3 + cells[cell]);
+        lines.remove(cell, cells[cell]);
+        cells[cell] = EMPTY;
+        marks--;
+        updateMarksNearby(cell, -1);
+    }
+
+    /**
+     * @return The player who completed a row, or {@link #EMPTY} if nobody has won (yet).
+     */
+    public byte getWinner() {
+        return lines.getWinner();
+    }
+
+    /**
+     * Estimates how good the position is for a player, see {@link LineTracker#evaluate(byte)}.
+     * The evaluation is kept up to date by every move, so this is O(1).
+     *
+     * @param player X or O.
+     * @return The evaluation for the player, between -{@link LineTracker#MAX_EVALUATION} and
+     * {@link LineTracker#MAX_EVALUATION}.
+     */
+    public int evaluate(byte player) {
+        return lines.evaluate(player);
+    }
+
+    /**
+     * @return true if every cell is occupied, false otherwise.
+     */
+    public boolean isFull() {
+        return marks == cells.length;
+    }
+
+    /**
+     * @return true if a player has won or the board is full, false otherwise.
+     */
+    public boolean isOver() {
+        return lines.isOver();
+    }
+
+    /**
+     * @return The player whose turn it is, assuming X made the first move and both players alternated.
+     */
+    public byte getPlayerToMove() {
+        return marks % 2 == 0 ? X : O;
+    }
+
+    /**
+     * @param cell A cell.
+     * @return The content of the cell ({@link #EMPTY}, {@link #X} or {@link #O}).
+     */
+    public byte get(int cell) {
+        return cells[cell];
+    }
+
+    /**
+     * Returns the Zobrist hash of the position.
+     * The hash is updated incrementally by every move and also depends on the dimensions of the board,
+     * so positions of different board sizes do not collide.
+     *
+     * @return The hash of the position.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * @param cell A cell.
+     * @return true if there is a mark at most two cells away from the cell, false otherwise.
+     */
+    public boolean isNearMark(int cell) {
+        return marksNearby[cell] > 0;
+    }
+
+    /**
+     * @param x The column.
+     * @param y The row.
+     * @return The number of the cell.
+     */
+    public int cell(int x, int y) {
+        return y * width + x;
+    }
+
+    /**
+     * @return The number of cells.
+     */
+    public int size() {
+        return cells.length;
+    }
+
+    /**
+     * @return The number of marks on the board.
+     */
+    public int getMarks() {
+        return marks;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * @return An independent copy of this board.
+     */
+    public Board copy() {
+        return new Board(this);
+    }
+
+    /**
+     * The SplitMix64 finalizer. It maps every (cell, player) pair to a pseudo-random key without a lookup table.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    private void updateMarksNearby(int cell, int delta) {
+        int x = cell % width;
+        int y = cell / width;
+        for (int ny = Math.max(0, y - NEIGHBOURHOOD); ny <= Math.min(height - 1, y + NEIGHBOURHOOD); ny++) {
+            for (int nx = Math.max(0, x - NEIGHBOURHOOD); nx <= Math.min(width - 1, x + NEIGHBOURHOOD); nx++) {
+                marksNearby[ny * width + nx] += (short) delta;
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Board board = (Board) o;
+        return width == board.width &&
+                height == board.height &&
+                k == board.k &&
+                Arrays.equals(cells, board.cells);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * (31 * width + height) + k) + Arrays.hashCode(cells);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("Board{" + width + "x" + height + ", k=" + k + ", cells=");
+        for (int y = 0; y < height; y++) {
+            if (y > 0) builder.append('/');
+            for (int x = 0; x < width; x++) {
+                builder.append(switch (cells[cell(x, y)]) {
+                    case X -> 'X';
+                    case O -> 'O';
+                    default -> '.';
+                });
+            }
+        }
+        return builder.append('}').toString();
+    }
+
+}
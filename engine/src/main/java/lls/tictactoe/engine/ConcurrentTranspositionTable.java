@@ -0,0 +1,134 @@
+package lls.tictactoe.engine;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size transposition table for {@link DeepeningSearch} which can be shared by many search threads.
+ * <p>
+ * Positions are keyed by their {@link Board#getHash() Zobrist hash}. Every slot consists of two longs: the packed
+ * entry and the entry XOR the hash. A reader only accepts a slot if both halves match its hash, so a slot which is
+ * torn by two concurrent writers is simply treated as empty, and no locking is necessary. If two positions map to
+ * the same slot, the newer one replaces the older one.
+ */
+public final class ConcurrentTranspositionTable {
+
+    /**
+     * Returned by {@link #get(long)} if the position is not stored.
+     */
+    public static final long EMPTY = 0;
+
+    /**
+     * The number of slots of the default table (32 MiB).
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 21;
+
+    private static final TranspositionTable.Bound[] BOUNDS = TranspositionTable.Bound.values();
+
+    private final AtomicLongArray slots;
+    private final int mask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ConcurrentTranspositionTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity The number of slots, rounded up to a power of two.
+     */
+    public ConcurrentTranspositionTable(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new AtomicLongArray(2 * slots);
+        this.mask = slots - 1;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param hash The hash of the position.
+     * @return The packed entry, or {@link #EMPTY} if the position is not stored.
+     * Use {@link #score(long)}, {@link #depth(long)}, {@link #bound(long)} and {@link #move(long)} to unpack it.
+     */
+    public long get(long hash) {
+        int index = 2 * (int) (hash & mask);
+        long entry = slots.getOpaque(index);
+        if (entry != EMPTY && (slots.getOpaque(index + 1) ^ entry) == hash) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        return EMPTY;
+    }
+
+    /**
+     * Stores the result of a position.
+     *
+     * @param hash  The hash of the position.
+     * @param score The score of the position for the player to move.
+     * @param depth The remaining depth the position was searched with.
+     * @param bound Whether the score is exact or only a bound.
+     * @param move  The best move of the position, or -1 if it has none.
+     */
+    public void put(long hash, int score, int depth, TranspositionTable.Bound bound, int move) {
+        long entry = (score & 0xFFFF_FFFFL)
+                | (long) (depth & 0xFFF) << 32
+                | (long) (bound.ordinal() + 1) << 44
+                | (long) (move + 1 & 0xFFFF) << 48;
+        int index = 2 * (int) (hash & mask);
+        slots.setOpaque(index, entry);
+        slots.setOpaque(index + 1, entry ^ hash);
+    }
+
+    public static int score(long entry) {
+        return (int) entry;
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 32) & 0xFFF;
+    }
+
+    public static TranspositionTable.Bound bound(long entry) {
+        return BOUNDS[(int) (entry >>> 44 & 0b11) - 1];
+    }
+
+    public static int move(long entry) {
+        return (int) (entry >>> 48) - 1;
+    }
+
+    /**
+     * @return The number of lookups which found a stored position.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of lookups which did not find a stored position.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Removes all stored positions and resets the statistics.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.setOpaque(i, EMPTY);
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentTranspositionTable{" +
+                "capacity=" + (mask + 1) +
+                ", hits=" + getHits() +
+                ", misses=" + getMisses() +
+                '}';
+    }
+
+}
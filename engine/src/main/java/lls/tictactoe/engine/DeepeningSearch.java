@@ -0,0 +1,415 @@
+package lls.tictactoe.engine;
+
+import lls.tictactoe.instrumentation.EngineMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An iterative-deepening alpha-beta search for boards of any size.
+ * <p>
+ * The search looks one move ahead, then two, then three and so on, until the position is solved or the
+ * {@link SearchLimits} are exhausted. The result of the last completed iteration is returned, so the response
+ * time is bounded by the limits no matter how large the board is. On large boards only cells near existing
+ * marks are considered as moves. Positions at the depth limit of an iteration are scored by the open lines of both
+ * players, see {@link Board#evaluate(byte)}, which the board keeps up to date with every move.
+ * <p>
+ * If the search is given a {@link ForkJoinPool}, every iteration searches the first root move on the calling
+ * thread and then splits the remaining root moves across the pool. Every pool thread keeps its own copy of the
+ * board for the whole search. A root move which the pool found to be better is searched again with a full window
+ * before it becomes the best move, as the alpha it was searched with may already have been outdated. All threads
+ * share one {@link ConcurrentTranspositionTable}, which also carries the results over from one search to the next.
+ * <p>
+ * Instances can be shared between threads; every call to {@link #search(Board, byte)} keeps its own state.
+ */
+public final class DeepeningSearch {
+
+    /**
+     * The score of a win on the current move. Wins further away score one less per ply.
+     */
+    public static final int WIN = 1_000_000;
+
+    /**
+     * Every score above this threshold is a proven win, every score below its negation a proven loss.
+     */
+    public static final int WIN_THRESHOLD = WIN - 10_000;
+
+    private static final int INFINITY = WIN + 1;
+
+    /**
+     * How many nodes a thread visits between two checks of the limits.
+     */
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final SearchLimits limits;
+    private final ForkJoinPool pool;
+    private final ConcurrentTranspositionTable table;
+
+    /**
+     * Creates a sequential search with its own transposition table.
+     *
+     * @param limits The budget of every search.
+     */
+    public DeepeningSearch(SearchLimits limits) {
+        this(limits, null, new ConcurrentTranspositionTable());
+    }
+
+    /**
+     * Creates a search.
+     *
+     * @param limits The budget of every search.
+     * @param pool   The pool to split the root moves across, or null to search sequentially.
+     *               Its parallelism determines how many root moves are searched at the same time.
+     * @param table  The transposition table to use, which may be shared with other searches.
+     */
+    public DeepeningSearch(SearchLimits limits, ForkJoinPool pool, ConcurrentTranspositionTable table) {
+        this.limits = limits;
+        this.pool = pool;
+        this.table = table;
+    }
+
+    /**
+     * Searches the best move.
+     * <p>
+     * The board is used as scratch space during the search, but it is restored before this method returns.
+     * The search stops early if the calling thread is interrupted.
+     *
+     * @param board  The position to search.
+     * @param player The player to move.
+     * @return The best move found within the limits.
+     */
+    public SearchResult search(Board board, byte player) {
+        Run run = new Run(player);
+        SearchResult result = run.search(board);
+        EngineMetrics.recordSearch(result.nodes(), result.depth(), run.cacheHits.sum());
+        return result;
+    }
+
+    /**
+     * Looks up the best move which an earlier search stored for a position, e.g. the opponent's reply in the
+     * principal variation of the last search, after its best move has been played.
+     *
+     * @param board  The position.
+     * @param player The player to move.
+     * @return The stored move, or -1 if the position is not in the transposition table or the game is over.
+     */
+    public int getExpectedMove(Board board, byte player) {
+        if (board.isOver()) return -1;
+        long entry = table.get(player == Board.X ? board.getHash() : ~board.getHash());
+        if (entry == ConcurrentTranspositionTable.EMPTY) return -1;
+        int move = ConcurrentTranspositionTable.move(entry);
+        return move >= 0 && move < board.size() && board.get(move) == Board.EMPTY ? move : -1;
+    }
+
+    public SearchLimits getLimits() {
+        return limits;
+    }
+
+    public ConcurrentTranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * @return The number of threads searching root moves at the same time.
+     */
+    public int getParallelism() {
+        return pool == null ? 1 : pool.getParallelism();
+    }
+
+    /**
+     * The state of a single search which is shared by all of its threads.
+     */
+    private final class Run {
+
+        private final byte player;
+        private final Thread caller = Thread.currentThread();
+        private final long start = System.nanoTime();
+        private final long timeLimit = limits.time().toNanos();
+        private final LongAdder nodes = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+
+        /**
+         * The workers of the pool threads, indexed by {@link ForkJoinWorkerThread#getPoolIndex()} and created on
+         * first use. A slot is only used by the thread with that index, and the root tasks are joined before the
+         * next iteration, so the slots need no synchronization.
+         */
+        private final Worker[] poolWorkers = pool == null ? null : new Worker[2 * pool.getParallelism()];
+
+        private volatile boolean aborted;
+
+        private Run(byte player) {
+            this.player = player;
+        }
+
+        private SearchResult search(Board board) {
+            if (board.isOver()) return new SearchResult(-1, 0, 0, 0);
+
+            Worker worker = new Worker(board);
+            int[] rootMoves = new int[board.size()];
+            int count = worker.generateMoves(rootMoves);
+            int[] scores = new int[count];
+            int[] alphas = new int[count];
+
+            int bestMove = rootMoves[0];
+            int bestScore = 0;
+            int completedDepth = 0;
+
+            for (int depth = 1; depth <= board.size() - board.getMarks(); depth++) {
+                // Search the first move on this thread, it is the best move of the previous iteration
+                alphas[0] = -INFINITY;
+                scores[0] = worker.searchRoot(rootMoves[0], depth, -INFINITY);
+
+                boolean parallel = pool != null && count > 1;
+                if (!parallel) {
+                    int alpha = scores[0];
+                    for (int i = 1; i < count && !aborted; i++) {
+                        alphas[i] = alpha;
+                        scores[i] = worker.searchRoot(rootMoves[i], depth, alpha);
+                        alpha = Math.max(alpha, scores[i]);
+                    }
+                } else {
+                    searchRemainingInParallel(board, rootMoves, count, depth, scores, alphas);
+                }
+
+                if (aborted) break;
+
+                int iterationBest = selectBest(scores, alphas, count);
+                // A root task may have started with an alpha that was already outdated, so verify its improvement
+                // with a full window on this thread before it replaces the best move
+                while (parallel && iterationBest != 0 && alphas[iterationBest] != -INFINITY && !aborted) {
+                    alphas[iterationBest] = -INFINITY;
+                    scores[iterationBest] = worker.searchRoot(rootMoves[iterationBest], depth, -INFINITY);
+                    iterationBest = selectBest(scores, alphas, count);
+                }
+
+                if (aborted) break;
+
+                // Search the best move first in the next iteration
+                bestMove = rootMoves[iterationBest];
+                System.arraycopy(rootMoves, 0, rootMoves, 1, iterationBest);
+                rootMoves[0] = bestMove;
+                bestScore = scores[iterationBest];
+                completedDepth = depth;
+
+                if (Math.abs(bestScore) > WIN_THRESHOLD) break;
+            }
+
+            worker.flushNodes();
+            return new SearchResult(bestMove, bestScore, completedDepth, nodes.sum());
+        }
+
+        /**
+         * @return The index of the best root move. A score is only a real improvement if it exceeds the alpha it
+         * was searched with.
+         */
+        private static int selectBest(int[] scores, int[] alphas, int count) {
+            int best = 0;
+            for (int i = 1; i < count; i++) {
+                if (scores[i] > alphas[i] && scores[i] > scores[best]) {
+                    best = i;
+                }
+            }
+            return best;
+        }
+
+        private void searchRemainingInParallel(Board board, int[] rootMoves, int count, int depth, int[] scores, int[] alphas) {
+            AtomicInteger sharedAlpha = new AtomicInteger(scores[0]);
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(count - 1);
+            for (int i = 1; i < count; i++) {
+                final int index = i;
+                tasks.add(pool.submit(() -> {
+                    Worker worker = poolWorker(board);
+                    int alpha = sharedAlpha.get();
+                    alphas[index] = alpha;
+                    scores[index] = worker.searchRoot(rootMoves[index], depth, alpha);
+                    sharedAlpha.accumulateAndGet(scores[index], Math::max);
+                    worker.flushNodes();
+                }));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        }
+
+        /**
+         * Returns the worker of the current pool thread, which keeps its board from one root move and one
+         * iteration to the next.
+         *
+         * @param board The root position, which is copied for a new worker.
+         */
+        private Worker poolWorker(Board board) {
+            if (Thread.currentThread() instanceof ForkJoinWorkerThread thread && thread.getPool() == pool) {
+                int index = thread.getPoolIndex();
+                if (index < poolWorkers.length) {
+                    if (poolWorkers[index] == null) poolWorkers[index] = new Worker(board.copy());
+                    return poolWorkers[index];
+                }
+            }
+            // A task which is run by a thread outside of the pool, e.g. the caller while it joins, or a pool thread
+            // beyond the expected indices
+            return new Worker(board.copy());
+        }
+
+        private void checkLimits() {
+            if (System.nanoTime() - start >= timeLimit
+                    || nodes.sum() >= limits.nodes()
+                    || caller.isInterrupted()) {
+                aborted = true;
+            }
+        }
+
+        /**
+         * The state of one thread of a search: its own board and move lists.
+         */
+        private final class Worker {
+
+            private final Board board;
+
+            /**
+             * One move list per ply, so move generation does not allocate.
+             */
+            private final int[][] moves;
+
+            private long unflushedNodes;
+            private long unflushedCacheHits;
+
+            private Worker(Board board) {
+                this.board = board;
+                this.moves = new int[board.size() - board.getMarks() + 1][board.size()];
+            }
+
+            private int searchRoot(int move, int depth, int alpha) {
+                board.play(move, player);
+                int score = -negamax(Board.opponent(player), depth - 1, 1, -INFINITY, -alpha);
+                board.undo(move);
+                return score;
+            }
+
+            private int negamax(byte toMove, int depth, int ply, int alpha, int beta) {
+                if (++unflushedNodes == CHECK_INTERVAL) {
+                    flushNodes();
+                    checkLimits();
+                }
+                if (aborted) return 0;
+
+                // The previous player completed a row
+                if (board.getWinner() != Board.EMPTY) return -(WIN - ply);
+                if (board.isFull()) return 0;
+                // Score the open lines where the search has to stop, see LineTracker.evaluate
+                if (depth == 0) return board.evaluate(toMove);
+
+                // The same cells can be reached with either player to move, so the player is part of the key
+                long key = toMove == Board.X ? board.getHash() : ~board.getHash();
+                long entry = table.get(key);
+                int tableMove = -1;
+                if (entry != ConcurrentTranspositionTable.EMPTY) {
+                    unflushedCacheHits++;
+                    tableMove = ConcurrentTranspositionTable.move(entry);
+                    if (ConcurrentTranspositionTable.depth(entry) >= depth) {
+                        int score = fromTable(ConcurrentTranspositionTable.score(entry), ply);
+                        switch (ConcurrentTranspositionTable.bound(entry)) {
+                            case EXACT -> {
+                                return score;
+                            }
+                            case LOWER -> alpha = Math.max(alpha, score);
+                            case UPPER -> beta = Math.min(beta, score);
+                        }
+                        if (alpha >= beta) return score;
+                    }
+                }
+
+                int[] buffer = moves[ply];
+                int count = generateMoves(buffer);
+                moveToFront(buffer, count, tableMove);
+
+                int originalAlpha = alpha;
+                int best = -INFINITY;
+                int bestMove = -1;
+
+                for (int i = 0; i < count; i++) {
+                    int move = buffer[i];
+                    board.play(move, toMove);
+                    int score = -negamax(Board.opponent(toMove), depth - 1, ply + 1, -beta, -alpha);
+                    board.undo(move);
+                    if (aborted) return 0;
+                    if (score > best) {
+                        best = score;
+                        bestMove = move;
+                        alpha = Math.max(alpha, score);
+                        if (alpha >= beta) break;
+                    }
+                }
+
+                TranspositionTable.Bound bound;
+                if (best <= originalAlpha) {
+                    bound = TranspositionTable.Bound.UPPER;
+                } else if (best >= beta) {
+                    bound = TranspositionTable.Bound.LOWER;
+                } else {
+                    bound = TranspositionTable.Bound.EXACT;
+                }
+                table.put(key, toTable(best, ply), depth, bound, bestMove);
+                return best;
+            }
+
+            /**
+             * Writes all sensible moves into the buffer: on an empty board only the center,
+             * otherwise every empty cell near an existing mark.
+             *
+             * @return The number of moves.
+             */
+            private int generateMoves(int[] buffer) {
+                if (board.getMarks() == 0) {
+                    buffer[0] = board.cell(board.getWidth() / 2, board.getHeight() / 2);
+                    return 1;
+                }
+                int count = 0;
+                for (int cell = 0; cell < board.size(); cell++) {
+                    if (board.get(cell) == Board.EMPTY && board.isNearMark(cell)) {
+                        buffer[count++] = cell;
+                    }
+                }
+                return count;
+            }
+
+            private void flushNodes() {
+                nodes.add(unflushedNodes);
+                cacheHits.add(unflushedCacheHits);
+                unflushedNodes = 0;
+                unflushedCacheHits = 0;
+            }
+        }
+    }
+
+    private static void moveToFront(int[] buffer, int count, int move) {
+        for (int i = 1; i < count; i++) {
+            if (buffer[i] == move) {
+                buffer[i] = buffer[0];
+                buffer[0] = move;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Converts a win or loss score from "plies from the root" to "plies from this position", so it stays valid
+     * when the position is reached again at a different ply.
+     */
+    private static int toTable(int score, int ply) {
+        if (score > WIN_THRESHOLD) return score + ply;
+        if (score < -WIN_THRESHOLD) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > WIN_THRESHOLD) return score - ply;
+        if (score < -WIN_THRESHOLD) return score + ply;
+        return score;
+    }
+
+}
@@ -0,0 +1,118 @@
+package lls.tictactoe.engine;
+
+import lls.tictactoe.Minimax;
+import lls.tictactoe.Tile;
+import lls.tictactoe.instrumentation.EngineMetrics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * The difficulty levels of the AI, each with its own way of choosing a move.
+ */
+public enum Difficulty {
+
+    /**
+     * Plays a random free tile.
+     */
+    EASY {
+        @Override
+        int move(List<Tile> tiles, Tile.State aiStateType, RandomGenerator random) {
+            // Create a list of the free (unoccupied) tiles
+            List<Tile> freeTiles = tiles.stream()
+                    .filter(Tile::isNotOccupied)
+                    .toList();
+
+            // If there are no free tiles, return without choosing a move
+            if (freeTiles.isEmpty()) return -1;
+
+            // Select a random free tile for the AI's move
+            return freeTiles.get(random.nextInt(freeTiles.size())).getPosition();
+        }
+    },
+
+    /**
+     * Wins if it can, blocks the player if it must, otherwise plays like {@link #EASY}.
+     */
+    MEDIUM {
+        @Override
+        int move(List<Tile> tiles, Tile.State aiStateType, RandomGenerator random) {
+            return mediumMove(Bitboard.mask(tiles, aiStateType), Bitboard.mask(tiles, opponent(aiStateType)), random);
+        }
+    },
+
+    /**
+     * Plays a perfect game.
+     */
+    UNBEATABLE {
+        @Override
+        int move(List<Tile> tiles, Tile.State aiStateType, RandomGenerator random) {
+            // Convert the board into bitboards, so the search does not work on the tiles
+            int aiMask = Bitboard.mask(tiles, aiStateType);
+            int playerMask = Bitboard.mask(tiles, opponent(aiStateType));
+
+            // Look up the best move in the solved table, and fall back to the Minimax algorithm without it
+            return SolvedTable.getDefault()
+                    .map(table -> table.getBestMove(aiMask, playerMask))
+                    .filter(bestMove -> bestMove != SolvedTable.NO_MOVE)
+                    .orElseGet(() -> Minimax.getBestMove(aiMask, playerMask));
+        }
+    };
+
+    /**
+     * Chooses the AI's move. The cost of the move is recorded by {@link EngineMetrics} if it is enabled.
+     *
+     * @param tiles       The tiles of the board, sorted by their position.
+     * @param aiStateType The state (X or O) representing the AI's symbol.
+     * @param random      The source of randomness for the levels which play randomly.
+     * @return The position of the chosen tile, or -1 if there is none.
+     */
+    public int chooseMove(List<Tile> tiles, Tile.State aiStateType, RandomGenerator random) {
+        EngineMetrics.Probe probe = EngineMetrics.begin();
+        int move = move(tiles, aiStateType, random);
+        EngineMetrics.end(probe, name(), move);
+        return move;
+    }
+
+    /**
+     * Chooses the AI's move without recording it, see {@link #chooseMove(List, Tile.State, RandomGenerator)}.
+     */
+    abstract int move(List<Tile> tiles, Tile.State aiStateType, RandomGenerator random);
+
+    /**
+     * Chooses the move of {@link #MEDIUM} on bitboards, with a single lookup in the {@link ThreatTable}.
+     *
+     * @param aiMask     The mask of the AI, which is to move.
+     * @param playerMask The mask of the player.
+     * @param random     The source of randomness for the moves without a threat.
+     * @return The position of the chosen cell, or -1 if the board is full.
+     */
+    public static int mediumMove(int aiMask, int playerMask, RandomGenerator random) {
+        // Look up the immediate threats of the position
+        int threats = ThreatTable.get(aiMask, playerMask);
+
+        // Complete a line if possible
+        int winningCells = ThreatTable.winningCells(threats);
+        if (winningCells != 0) return Bitboard.randomCell(winningCells, random);
+
+        // Otherwise, stop the player from completing a line
+        int blockingCells = ThreatTable.blockingCells(threats);
+        if (blockingCells != 0) return Bitboard.randomCell(blockingCells, random);
+
+        // If there is no threat, play a random free cell like the easy AI
+        int empty = Bitboard.empty(aiMask, playerMask);
+        return empty == 0 ? -1 : Bitboard.randomCell(empty, random);
+    }
+
+    /**
+     * Determines the player's state (X or O) by finding the state that is not NONE and not the AI's state.
+     */
+    private static Tile.State opponent(Tile.State aiStateType) {
+        return Arrays.stream(Tile.State.values())
+                .filter(state -> !state.equals(Tile.State.NONE) && !state.equals(aiStateType))
+                .findAny()
+                .orElseThrow();
+    }
+
+}
@@ -0,0 +1,290 @@
+package lls.tictactoe.engine;
+
+import lls.tictactoe.Tile;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the state of a game incrementally, so the end of the game can be detected in O(k) after every move.
+ * <p>
+ * A line is any run of k consecutive cells in a row, a column or a diagonal. For every line the tracker counts
+ * the marks of each player, and for every cell it knows the lines which pass through it. Placing or removing a
+ * mark therefore only touches the at most 4k lines through that cell, and a player has won as soon as one of
+ * these counts reaches k. The number of empty cells is kept as a running count. Nothing is allocated per move.
+ * <p>
+ * The same counts drive a heuristic evaluation for positions a search cannot look beyond, see
+ * {@link #evaluate(byte)}: a line which only holds marks of one player (the remaining cells of the line are empty)
+ * is a threat of that player, weighted by the number of its marks. The sum of the weights of every player is updated
+ * along with the counts, so evaluating a position is O(1) instead of a scan of the board.
+ * <p>
+ * The layout of the lines only depends on the dimensions of the board, so it is computed once and shared by
+ * all trackers of the same size.
+ */
+public final class LineTracker {
+
+    /**
+     * The largest absolute value of {@link #evaluate(byte)}, far below the scores of proven wins and losses.
+     */
+    public static final int MAX_EVALUATION = 100_000;
+
+    private static final Map<Long, Layout> LAYOUTS = new ConcurrentHashMap<>();
+
+    private final Layout layout;
+
+    /**
+     * The number of marks of X (index 0) and O (index 1) on every line.
+     */
+    private final int[][] counts;
+
+    /**
+     * The sum of the weights of the open lines of X (index 0) and O (index 1), see {@link #evaluate(byte)}.
+     */
+    private final long[] threats;
+
+    private int emptyCells;
+    private byte winner = Board.EMPTY;
+
+    /**
+     * Creates a tracker for an empty board.
+     *
+     * @param width  The number of columns.
+     * @param height The number of rows.
+     * @param k      The number of marks in a row needed to win.
+     */
+    public LineTracker(int width, int height, int k) {
+        this.layout = LAYOUTS.computeIfAbsent(((long) width << 40) | ((long) height << 20) | k,
+                _ -> new Layout(width, height, k));
+        this.counts = new int[2][layout.lineCount];
+        this.threats = new long[2];
+        this.emptyCells = width * height;
+    }
+
+    private LineTracker(LineTracker other) {
+        this.layout = other.layout;
+        this.counts = new int[][]{other.counts[0].clone(), other.counts[1].clone()};
+        this.threats = other.threats.clone();
+        this.emptyCells = other.emptyCells;
+        this.winner = other.winner;
+    }
+
+    /**
+     * Records a mark placed on a cell.
+     *
+     * @param cell   The cell the mark was placed on.
+     * @param player X or O.
+     * @return true if the mark completed a line, false otherwise.
+     */
+    public boolean place(int cell, byte player) {
+        int own = player - Board.X;
+        int[] playerCounts = counts[own];
+        int[] opponentCounts = counts[1 - own];
+        long[] weights = layout.weights;
+        boolean completed = false;
+        for (int i = layout.cellStart[cell]; i < layout.cellStart[cell + 1]; i++) {
+            int line = layout.cellLines[i];
+            int before = playerCounts[line]++;
+            int blocking = opponentCounts[line];
+            // The line grows as a threat of the player, or stops being one of the opponent
+            if (blocking == 0) {
+                threats[own] += weights[before + 1] - weights[before];
+            } else if (before == 0) {
+                threats[1 - own] -= weights[blocking];
+            }
+            if (before + 1 == layout.k) {
+                completed = true;
+            }
+        }
+        emptyCells--;
+        if (completed && winner == Board.EMPTY) {
+            winner = player;
+        }
+        return completed;
+    }
+
+    /**
+     * Records a mark removed from a cell. Only the most recent mark may be removed.
+     *
+     * @param cell   The cell the mark was removed from.
+     * @param player X or O.
+     */
+    public void remove(int cell, byte player) {
+        int own = player - Board.X;
+        int[] playerCounts = counts[own];
+        int[] opponentCounts = counts[1 - own];
+        long[] weights = layout.weights;
+        for (int i = layout.cellStart[cell]; i < layout.cellStart[cell + 1]; i++) {
+            int line = layout.cellLines[i];
+            int after = --playerCounts[line];
+            int blocking = opponentCounts[line];
+            if (blocking == 0) {
+                threats[own] -= weights[after + 1] - weights[after];
+            } else if (after == 0) {
+                threats[1 - own] += weights[blocking];
+            }
+        }
+        emptyCells++;
+        winner = Board.EMPTY;
+    }
+
+    /**
+     * Removes all marks, so the tracker can be reused for a new game on a board of the same size.
+     */
+    public void reset() {
+        Arrays.fill(counts[0], 0);
+        Arrays.fill(counts[1], 0);
+        Arrays.fill(threats, 0);
+        emptyCells = layout.cellStart.length - 1;
+        winner = Board.EMPTY;
+    }
+
+    /**
+     * Records a mark placed on a tile of the classic 3x3 board.
+     *
+     * @param tile The tile which was just occupied.
+     * @return true if the mark completed a line, false otherwise.
+     */
+    public boolean place(Tile tile) {
+        return place(tile.getPosition(), Board.of(tile.getState()));
+    }
+
+    /**
+     * @return The player who completed a line, or {@link Board#EMPTY} if nobody has won (yet).
+     */
+    public byte getWinner() {
+        return winner;
+    }
+
+    /**
+     * @return The state of the player who completed a line, or Tile.State.NONE if nobody has won (yet).
+     */
+    public Tile.State getWinnerState() {
+        return switch (winner) {
+            case Board.X -> Tile.State.X;
+            case Board.O -> Tile.State.O;
+            default -> Tile.State.NONE;
+        };
+    }
+
+    /**
+     * Estimates how good a position is for a player, by the open lines of both players.
+     * <p>
+     * A line is open for a player if the opponent has no mark on it. Every open line with c marks is worth
+     * 8<sup>c - 1</sup>, so one line which is a mark closer to completion outweighs several shorter ones. The
+     * evaluation is the difference between the worth of the player's and the opponent's open lines, and only
+     * meaningful while nobody has won.
+     *
+     * @param player X or O.
+     * @return The evaluation for the player, between -{@link #MAX_EVALUATION} and {@link #MAX_EVALUATION}.
+     */
+    public int evaluate(byte player) {
+        int own = player - Board.X;
+        long score = threats[own] - threats[1 - own];
+        return Math.clamp(score, -MAX_EVALUATION, MAX_EVALUATION);
+    }
+
+    /**
+     * @return The number of cells without a mark.
+     */
+    public int getEmptyCells() {
+        return emptyCells;
+    }
+
+    /**
+     * @return true if every cell is occupied, false otherwise.
+     */
+    public boolean isFull() {
+        return emptyCells == 0;
+    }
+
+    /**
+     * @return true if a player has won or the board is full, false otherwise.
+     */
+    public boolean isOver() {
+        return winner != Board.EMPTY || emptyCells == 0;
+    }
+
+    /**
+     * @return An independent copy of this tracker.
+     */
+    public LineTracker copy() {
+        return new LineTracker(this);
+    }
+
+    /**
+     * The lines of a board size, stored as flat arrays: the lines through cell {@code c} are
+     * {@code cellLines[cellStart[c]]} up to (excluding) {@code cellLines[cellStart[c + 1]]}.
+     */
+    private static final class Layout {
+
+        private static final int[][] DIRECTIONS = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+
+        private final int k;
+
+        /**
+         * The worth of an open line by its number of marks, see {@link #evaluate(byte)}.
+         * The growth is capped, so the sum over all lines cannot overflow for any sensible k.
+         */
+        private final long[] weights;
+
+        private final int lineCount;
+        private final int[] cellStart;
+        private final int[] cellLines;
+
+        private Layout(int width, int height, int k) {
+            this.k = k;
+            this.weights = new long[k + 1];
+            for (int c = 1; c <= k; c++) {
+                weights[c] = 1L << Math.min(3 * (c - 1), 40);
+            }
+
+            // Count the lines through every cell
+            int[] linesPerCell = new int[width * height];
+            int lines = 0;
+            for (int[] direction : DIRECTIONS) {
+                for (int y = 0; y < height; y++) {
+                    for (int x = 0; x < width; x++) {
+                        if (!fits(width, height, x, y, direction)) continue;
+                        for (int i = 0; i < k; i++) {
+                            linesPerCell[(y + i * direction[1]) * width + x + i * direction[0]]++;
+                        }
+                        lines++;
+                    }
+                }
+            }
+            this.lineCount = lines;
+
+            this.cellStart = new int[width * height + 1];
+            for (int cell = 0; cell < width * height; cell++) {
+                cellStart[cell + 1] = cellStart[cell] + linesPerCell[cell];
+            }
+
+            // Fill in the lines through every cell
+            this.cellLines = new int[cellStart[width * height]];
+            int[] filled = cellStart.clone();
+            int line = 0;
+            for (int[] direction : DIRECTIONS) {
+                for (int y = 0; y < height; y++) {
+                    for (int x = 0; x < width; x++) {
+                        if (!fits(width, height, x, y, direction)) continue;
+                        for (int i = 0; i < k; i++) {
+                            cellLines[filled[(y + i * direction[1]) * width + x + i * direction[0]]++] = line;
+                        }
+                        line++;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Checks if a line of k cells starting at (x, y) in the given direction stays on the board.
+         */
+        private boolean fits(int width, int height, int x, int y, int[] direction) {
+            int endX = x + (k - 1) * direction[0];
+            int endY = y + (k - 1) * direction[1];
+            return endX >= 0 && endX < width && endY >= 0 && endY < height;
+        }
+    }
+
+}
@@ -0,0 +1,439 @@
+package lls.tictactoe.engine;
+
+import lls.tictactoe.instrumentation.EngineMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A Monte Carlo Tree Search (UCT) for boards of any size.
+ * <p>
+ * Every iteration walks down the tree by the UCT formula, expands the leaf, plays random moves until the game
+ * is over and adds the result to every node on the path. Unlike {@link DeepeningSearch} it needs no evaluation
+ * function, and its strength grows smoothly with the budget, so the {@link SearchLimits} are a simple compute knob:
+ * the time limit bounds the wall time, the node limit bounds the number of playouts.
+ * <p>
+ * The tree is stored in a pool of primitive arrays instead of one object per node, and the children of a node
+ * occupy consecutive slots. Once the pool is full, the tree stops growing and the remaining playouts start at
+ * its leaves. The playouts only update a {@link LineTracker} and a list of empty cells, so they do not allocate.
+ * <p>
+ * If the search is given a {@link ForkJoinPool}, its threads search the same tree (tree parallelism). A thread
+ * which walks through a node adds a virtual loss to it, which steers the other threads to different paths until
+ * the playout result replaces the loss.
+ * <p>
+ * The {@link SearchResult} of this search has a different meaning than the one of {@link DeepeningSearch}:
+ * the score is the expected result of the best move for the player to move, from -1000 (certain loss) to 1000
+ * (certain win), the depth is the deepest ply of the tree, and the nodes are the number of playouts.
+ * <p>
+ * An instance owns its node pool, so it runs one search at a time; concurrent calls wait for each other.
+ */
+public final class MonteCarloSearch {
+
+    /**
+     * The default number of nodes of the pool, which takes about 24 MB.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    /**
+     * The exploration constant of the UCT formula, for results between 0 and 1.
+     */
+    private static final double EXPLORATION = Math.sqrt(2);
+
+    /**
+     * A node whose children have not been created yet.
+     */
+    private static final int UNEXPANDED = -1;
+
+    /**
+     * A node whose children are being created by another thread.
+     */
+    private static final int EXPANDING = -2;
+
+    /**
+     * A node which stays a leaf, because the pool was full when it was expanded.
+     */
+    private static final int LEAF = -3;
+
+    private static final int ROOT = 0;
+
+    /**
+     * The results are counted in half points: 2 for a win, 1 for a draw and 0 for a loss.
+     */
+    private static final int WIN_POINTS = 2;
+    private static final int DRAW_POINTS = 1;
+
+    private final SearchLimits limits;
+    private final ForkJoinPool pool;
+
+    /**
+     * The move which leads from the parent to each node.
+     */
+    private final int[] moves;
+
+    /**
+     * The first child of each node, or one of {@link #UNEXPANDED}, {@link #EXPANDING} and {@link #LEAF}.
+     */
+    private final AtomicIntegerArray firstChild;
+
+    /**
+     * The number of children of each node. Only read after the first child has been published.
+     */
+    private final int[] childCount;
+
+    /**
+     * The visits (high 32 bits) and the points (low 32 bits) of each node, from the point of view of the player who
+     * made the move leading to the node. Both halves are updated with a single atomic addition.
+     */
+    private final AtomicLongArray statistics;
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Creates a sequential search with a pool of {@link #DEFAULT_CAPACITY} nodes.
+     *
+     * @param limits The budget of every search.
+     */
+    public MonteCarloSearch(SearchLimits limits) {
+        this(limits, null, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a search.
+     *
+     * @param limits   The budget of every search.
+     * @param pool     The pool whose threads search the tree together with the calling thread, or null to search
+     *                 sequentially.
+     * @param capacity The maximum number of nodes of the tree.
+     */
+    public MonteCarloSearch(SearchLimits limits, ForkJoinPool pool, int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        this.limits = limits;
+        this.pool = pool;
+        this.moves = new int[capacity];
+        this.firstChild = new AtomicIntegerArray(capacity);
+        this.childCount = new int[capacity];
+        this.statistics = new AtomicLongArray(capacity);
+    }
+
+    /**
+     * Searches the best move.
+     * <p>
+     * The board is not modified. The search stops early if the calling thread is interrupted.
+     *
+     * @param board  The position to search.
+     * @param player The player to move.
+     * @return The most visited move.
+     */
+    public synchronized SearchResult search(Board board, byte player) {
+        if (board.isOver()) return new SearchResult(-1, 0, 0, 0);
+
+        // Reset the pool to a single root node
+        size.set(1);
+        firstChild.set(ROOT, UNEXPANDED);
+        statistics.set(ROOT, 0);
+
+        Run run = new Run(player);
+        SplittableRandom random = new SplittableRandom();
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        if (pool != null) {
+            for (int i = 1; i < pool.getParallelism(); i++) {
+                final Run.Worker worker = run.new Worker(board.copy(), random.split());
+                tasks.add(pool.submit(worker::run));
+            }
+        }
+        run.new Worker(board.copy(), random).run();
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+
+        SearchResult result = run.result();
+        EngineMetrics.recordSearch(result.nodes(), result.depth(), 0);
+        return result;
+    }
+
+    public SearchLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * @return The number of threads which search the tree.
+     */
+    public int getParallelism() {
+        return pool == null ? 1 : pool.getParallelism();
+    }
+
+    /**
+     * @return The maximum number of nodes of the tree.
+     */
+    public int getCapacity() {
+        return moves.length;
+    }
+
+    private static int visits(long statistics) {
+        return (int) (statistics >>> 32);
+    }
+
+    private static int points(long statistics) {
+        return (int) statistics;
+    }
+
+    /**
+     * The state of a single search which is shared by all of its threads.
+     */
+    private final class Run {
+
+        private final byte player;
+        private final Thread caller = Thread.currentThread();
+        private final long start = System.nanoTime();
+        private final long timeLimit = limits.time().toNanos();
+        private final AtomicLong playouts = new AtomicLong();
+        private final AtomicInteger maxDepth = new AtomicInteger();
+
+        private volatile boolean aborted;
+
+        private Run(byte player) {
+            this.player = player;
+        }
+
+        private SearchResult result() {
+            int first = firstChild.get(ROOT);
+            if (first < 0) return new SearchResult(-1, 0, maxDepth.get(), playouts.get());
+
+            int best = first;
+            for (int child = first + 1; child < first + childCount[ROOT]; child++) {
+                if (visits(statistics.get(child)) > visits(statistics.get(best))) {
+                    best = child;
+                }
+            }
+            long bestStatistics = statistics.get(best);
+            int visits = visits(bestStatistics);
+            int score = visits == 0 ? 0 : (int) ((points(bestStatistics) - (long) visits) * 1000 / visits);
+            return new SearchResult(moves[best], score, maxDepth.get(), playouts.get());
+        }
+
+        /**
+         * Claims the next playout, or stops the search if a limit is reached.
+         *
+         * @return true if the playout may be run, false otherwise.
+         */
+        private boolean nextPlayout() {
+            if (aborted) return false;
+            if (playouts.getAndIncrement() >= limits.nodes()
+                    || System.nanoTime() - start >= timeLimit
+                    || caller.isInterrupted()) {
+                aborted = true;
+                playouts.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * The state of one thread of a search: its own board, line counts, empty cells and path.
+         */
+        private final class Worker {
+
+            private final Board board;
+            private final SplittableRandom random;
+
+            /**
+             * The line counts of the position the worker is at, the playouts only update these.
+             */
+            private final LineTracker lines;
+
+            /**
+             * The empty cells. The first {@link #emptyCount} entries are empty, and a removed cell is swapped
+             * right behind them, so removals are undone in reverse order by just growing the count again.
+             */
+            private final int[] empty;
+            private final int[] emptyIndex;
+            private int emptyCount;
+
+            /**
+             * The nodes from the root to the current node, and the moves played after them in the playout.
+             */
+            private final int[] path;
+            private final int[] playout;
+
+            private final int[] candidates;
+
+            private Worker(Board board, SplittableRandom random) {
+                this.board = board;
+                this.random = random;
+                this.lines = new LineTracker(board.getWidth(), board.getHeight(), board.getK());
+                this.empty = new int[board.size()];
+                this.emptyIndex = new int[board.size()];
+                this.path = new int[board.size() + 1];
+                this.playout = new int[board.size()];
+                this.candidates = new int[board.size()];
+                for (int cell = 0; cell < board.size(); cell++) {
+                    if (board.get(cell) == Board.EMPTY) {
+                        emptyIndex[cell] = emptyCount;
+                        empty[emptyCount++] = cell;
+                    } else {
+                        lines.place(cell, board.get(cell));
+                    }
+                }
+            }
+
+            private void run() {
+                while (nextPlayout()) {
+                    iterate();
+                }
+            }
+
+            /**
+             * Runs one selection, expansion, playout and backpropagation.
+             */
+            private void iterate() {
+                int node = ROOT;
+                int depth = 0;
+                byte toMove = player;
+                path[0] = ROOT;
+
+                // Selection and expansion: walk down until a new node, a finished game or the edge of the tree
+                while (!lines.isOver()) {
+                    int first = firstChild.get(node);
+                    if (first == UNEXPANDED) {
+                        first = expand(node);
+                    }
+                    if (first < 0) break;
+
+                    int child = select(node, first);
+                    statistics.getAndAdd(child, 1L << 32);
+                    play(moves[child], toMove, true);
+                    toMove = Board.opponent(toMove);
+                    path[++depth] = child;
+                    node = child;
+                    if (visits(statistics.get(child)) == 1) break;
+                }
+                maxDepth.accumulateAndGet(depth, Math::max);
+
+                // Playout: random moves until the game is over
+                byte leafToMove = toMove;
+                int played = 0;
+                while (!lines.isOver()) {
+                    int cell = empty[random.nextInt(emptyCount)];
+                    play(cell, toMove, false);
+                    playout[played++] = cell;
+                    toMove = Board.opponent(toMove);
+                }
+                byte winner = lines.getWinner();
+
+                // Take the playout back, in reverse order, the players alternated starting at the leaf
+                for (int i = played - 1; i >= 0; i--) {
+                    undo(playout[i], i % 2 == 0 ? leafToMove : Board.opponent(leafToMove), false);
+                }
+
+                // Backpropagation: the virtual visit added during the selection stays as the real visit
+                byte mover = player;
+                for (int i = 1; i <= depth; i++) {
+                    int points = winner == Board.EMPTY ? DRAW_POINTS : winner == mover ? WIN_POINTS : 0;
+                    statistics.getAndAdd(path[i], points);
+                    mover = Board.opponent(mover);
+                }
+                statistics.getAndAdd(ROOT, 1L << 32);
+
+                for (int i = depth; i >= 1; i--) {
+                    int cell = moves[path[i]];
+                    undo(cell, board.get(cell), true);
+                }
+            }
+
+            /**
+             * Creates the children of a node, unless another thread is already doing so or the pool is full.
+             *
+             * @return The first child, or a negative value if the node has no children to select from.
+             */
+            private int expand(int node) {
+                if (!firstChild.compareAndSet(node, UNEXPANDED, EXPANDING)) {
+                    return firstChild.get(node);
+                }
+                int count = generateMoves(candidates);
+                int first = size.getAndAdd(count);
+                if (count == 0 || first + count > moves.length) {
+                    firstChild.set(node, LEAF);
+                    return LEAF;
+                }
+                for (int i = 0; i < count; i++) {
+                    moves[first + i] = candidates[i];
+                    firstChild.set(first + i, UNEXPANDED);
+                    statistics.set(first + i, 0);
+                }
+                childCount[node] = count;
+                firstChild.set(node, first);
+                return first;
+            }
+
+            /**
+             * Picks the child with the highest UCT value. Unvisited children are picked first.
+             */
+            private int select(int node, int first) {
+                double logVisits = Math.log(Math.max(1, visits(statistics.get(node))));
+                int best = first;
+                double bestValue = Double.NEGATIVE_INFINITY;
+                for (int child = first; child < first + childCount[node]; child++) {
+                    long childStatistics = statistics.get(child);
+                    int visits = visits(childStatistics);
+                    if (visits == 0) return child;
+                    double value = points(childStatistics) / (2.0 * visits)
+                            + EXPLORATION * Math.sqrt(logVisits / visits);
+                    if (value > bestValue) {
+                        bestValue = value;
+                        best = child;
+                    }
+                }
+                return best;
+            }
+
+            /**
+             * Writes the moves of the tree into the buffer: on an empty board only the center,
+             * otherwise every empty cell near an existing mark.
+             *
+             * @return The number of moves.
+             */
+            private int generateMoves(int[] buffer) {
+                if (board.getMarks() == 0) {
+                    buffer[0] = board.cell(board.getWidth() / 2, board.getHeight() / 2);
+                    return 1;
+                }
+                int count = 0;
+                for (int i = 0; i < emptyCount; i++) {
+                    if (board.isNearMark(empty[i])) {
+                        buffer[count++] = empty[i];
+                    }
+                }
+                return count;
+            }
+
+            /**
+             * Places a mark. Moves in the tree are also played on the board, which move generation needs,
+             * playout moves only update the line counts and the empty cells.
+             */
+            private void play(int cell, byte toMove, boolean inTree) {
+                if (inTree) board.play(cell, toMove);
+                lines.place(cell, toMove);
+                int index = emptyIndex[cell];
+                int last = empty[--emptyCount];
+                empty[index] = last;
+                emptyIndex[last] = index;
+                empty[emptyCount] = cell;
+                emptyIndex[cell] = emptyCount;
+            }
+
+            private void undo(int cell, byte mark, boolean inTree) {
+                lines.remove(cell, mark);
+                if (inTree) board.undo(cell);
+                emptyCount++;
+            }
+        }
+    }
+
+}
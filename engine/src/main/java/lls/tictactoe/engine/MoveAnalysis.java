@@ -0,0 +1,144 @@
+package lls.tictactoe.engine;
+
+import lls.tictactoe.Minimax;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The value of every legal move of a 3x3 position.
+ * <p>
+ * All moves are evaluated together: with the {@link SolvedTable} every move is one lookup, without it the moves
+ * share a single Minimax search. The analysis of every position is cached, so asking for hints, the best move and
+ * the value of a move again costs nothing.
+ * <p>
+ * Values follow {@link Minimax#evaluate(int, int)}: a win is worth one more than the number of cells which are
+ * still empty after the winning move, a loss the negated value, and a draw 0.
+ */
+public final class MoveAnalysis {
+
+    /**
+     * The value of an occupied cell.
+     */
+    public static final int ILLEGAL = Integer.MIN_VALUE;
+
+    /**
+     * The analyses computed so far, by {@link Bitboard#index(int, int)}.
+     */
+    private static final AtomicReferenceArray<MoveAnalysis> CACHE = new AtomicReferenceArray<>(Bitboard.INDICES);
+
+    private final int[] values;
+    private final int emptyCells;
+
+    private MoveAnalysis(int[] values, int emptyCells) {
+        this.values = values;
+        this.emptyCells = emptyCells;
+    }
+
+    /**
+     * Analyzes a position, or returns the cached analysis.
+     *
+     * @param ownMask      The mask of the player to move.
+     * @param opponentMask The mask of the player who made the last move.
+     * @return The analysis from the point of view of the player to move. If the game is already over,
+     * every move is illegal.
+     */
+    public static MoveAnalysis of(int ownMask, int opponentMask) {
+        int index = Bitboard.index(ownMask, opponentMask);
+        MoveAnalysis analysis = CACHE.get(index);
+        if (analysis == null) {
+            // Two threads may analyze the same position, both come to the same result
+            analysis = compute(ownMask, opponentMask);
+            CACHE.set(index, analysis);
+        }
+        return analysis;
+    }
+
+    private static MoveAnalysis compute(int ownMask, int opponentMask) {
+        int empty = Bitboard.empty(ownMask, opponentMask);
+        int emptyCells = Integer.bitCount(empty);
+        int[] values = new int[Bitboard.CELLS];
+        if (Bitboard.isWin(ownMask) || Bitboard.isWin(opponentMask)) {
+            Arrays.fill(values, ILLEGAL);
+            return new MoveAnalysis(values, emptyCells);
+        }
+
+        SolvedTable table = SolvedTable.getDefault().orElse(null);
+        if (table == null) {
+            return new MoveAnalysis(Minimax.evaluateMoves(ownMask, opponentMask), emptyCells);
+        }
+        for (int cell = 0; cell < Bitboard.CELLS; cell++) {
+            int bit = Bitboard.bit(cell);
+            if ((empty & bit) == 0) {
+                values[cell] = ILLEGAL;
+            } else {
+                values[cell] = -table.getValue(opponentMask, ownMask | bit);
+            }
+        }
+        return new MoveAnalysis(values, emptyCells);
+    }
+
+    /**
+     * @param cell A cell.
+     * @return true if the cell is empty and the game is not over, false otherwise.
+     */
+    public boolean isLegal(int cell) {
+        return values[cell] != ILLEGAL;
+    }
+
+    /**
+     * @param cell A cell.
+     * @return The value of playing the cell, or {@link #ILLEGAL} if the move is not legal.
+     */
+    public int getValue(int cell) {
+        return values[cell];
+    }
+
+    /**
+     * @param cell A legal move.
+     * @return The outcome of playing the cell, if both players play perfectly afterwards.
+     */
+    public Outcome getOutcome(int cell) {
+        int value = checkLegal(cell);
+        return value > 0 ? Outcome.WIN : value < 0 ? Outcome.LOSS : Outcome.DRAW;
+    }
+
+    /**
+     * @param cell A legal move.
+     * @return The number of moves, including this one, until the game is decided: the winning move of a win or a
+     * loss, or the last move of a draw.
+     */
+    public int getDistance(int cell) {
+        int value = checkLegal(cell);
+        // A win with value v leaves v - 1 cells empty
+        return value == 0 ? emptyCells : emptyCells - Math.abs(value) + 1;
+    }
+
+    /**
+     * @return The move with the highest value (the fastest win, or the slowest loss), or -1 if there is none.
+     */
+    public int getBestMove() {
+        int best = -1;
+        for (int cell = 0; cell < Bitboard.CELLS; cell++) {
+            if (isLegal(cell) && (best == -1 || values[cell] > values[best])) {
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+    private int checkLegal(int cell) {
+        if (!isLegal(cell)) throw new IllegalArgumentException("Not a legal move: " + cell);
+        return values[cell];
+    }
+
+    /**
+     * The outcome of a move for the player who makes it.
+     */
+    public enum Outcome {
+        WIN,
+        DRAW,
+        LOSS
+    }
+
+}
@@ -0,0 +1,102 @@
+package lls.tictactoe.engine;
+
+import lls.tictactoe.Tile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compact text encoding of the 3x3 board, used wherever boards leave the process.
+ * <p>
+ * A board is written as nine characters, one per tile in the order of their positions: {@code X}, {@code O},
+ * or {@code .} for an empty tile. Letters are accepted in either case, e.g. {@code "x...o...."}.
+ */
+public final class Notation {
+
+    /**
+     * The character of an empty tile.
+     */
+    public static final char EMPTY = '.';
+
+    private Notation() {
+    }
+
+    /**
+     * Decodes a board into tiles.
+     *
+     * @param board The encoded board.
+     * @return The tiles of the board, sorted by their position.
+     * @throws IllegalArgumentException if the board is not nine valid characters.
+     */
+    public static List<Tile> parse(CharSequence board) {
+        checkLength(board);
+        List<Tile> tiles = new ArrayList<>(Bitboard.CELLS);
+        for (int position = 0; position < Bitboard.CELLS; position++) {
+            Tile tile = new Tile(position);
+            tile.changeState(state(board.charAt(position)));
+            tiles.add(tile);
+        }
+        return tiles;
+    }
+
+    /**
+     * Decodes the mask of one player directly, without creating any tiles.
+     *
+     * @param board The encoded board.
+     * @param state The state to collect (X or O).
+     * @return The mask of all tiles in the given state.
+     * @throws IllegalArgumentException if the board is not nine valid characters.
+     */
+    public static int mask(CharSequence board, Tile.State state) {
+        checkLength(board);
+        int mask = 0;
+        for (int position = 0; position < Bitboard.CELLS; position++) {
+            if (state(board.charAt(position)) == state) {
+                mask |= Bitboard.bit(position);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Encodes a board given by the masks of both players.
+     *
+     * @param xMask The mask of X.
+     * @param oMask The mask of O.
+     * @return The encoded board.
+     */
+    public static String format(int xMask, int oMask) {
+        char[] board = new char[Bitboard.CELLS];
+        for (int position = 0; position < Bitboard.CELLS; position++) {
+            int bit = Bitboard.bit(position);
+            board[position] = (xMask & bit) != 0 ? 'X' : (oMask & bit) != 0 ? 'O' : EMPTY;
+        }
+        return new String(board);
+    }
+
+    /**
+     * Encodes a board given by its tiles.
+     *
+     * @param tiles The tiles of the board.
+     * @return The encoded board.
+     */
+    public static String format(Iterable<Tile> tiles) {
+        return format(Bitboard.mask(tiles, Tile.State.X), Bitboard.mask(tiles, Tile.State.O));
+    }
+
+    private static void checkLength(CharSequence board) {
+        if (board.length() != Bitboard.CELLS) {
+            throw new IllegalArgumentException("A board has " + Bitboard.CELLS + " tiles, got " + board.length());
+        }
+    }
+
+    private static Tile.State state(char c) {
+        return switch (c) {
+            case 'X', 'x' -> Tile.State.X;
+            case 'O', 'o' -> Tile.State.O;
+            case EMPTY -> Tile.State.NONE;
+            default -> throw new IllegalArgumentException("Invalid tile: '" + c + "'");
+        };
+    }
+
+}
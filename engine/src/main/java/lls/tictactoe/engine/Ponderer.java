@@ -0,0 +1,69 @@
+package lls.tictactoe.engine;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Searches the answers to the opponent's possible moves while the opponent is still thinking.
+ * <p>
+ * After the engine has moved, {@link #ponder(int, Callable)} starts a background search for each reply of the
+ * opponent worth pondering: all of them on small boards, only the expected one on large boards. Once the opponent
+ * has moved, {@link #take(int)} hands out the search for that reply and cancels all others. If the search is
+ * already done, the engine can move without any delay; if not, waiting for it continues the work already done
+ * instead of starting over. Searches which check the interrupt flag of their thread, like
+ * {@link DeepeningSearch}, stop as soon as they are cancelled.
+ * <p>
+ * A ponderer is meant to be used by one thread, e.g. the JavaFX application thread; the searches themselves run
+ * on the given executor.
+ */
+public final class Ponderer {
+
+    private final ExecutorService executor;
+
+    /**
+     * The running or finished searches, by the reply they answer.
+     */
+    private final Map<Integer, Future<Integer>> answers = new HashMap<>();
+
+    /**
+     * @param executor The executor to run the searches on.
+     */
+    public Ponderer(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Starts searching the answer to a possible reply.
+     *
+     * @param reply  The move of the opponent.
+     * @param search The search which returns the engine's answer to the reply.
+     */
+    public void ponder(int reply, Callable<Integer> search) {
+        Future<Integer> previous = answers.put(reply, executor.submit(search));
+        if (previous != null) previous.cancel(true);
+    }
+
+    /**
+     * Takes the search for the reply the opponent actually played, and cancels all other searches.
+     *
+     * @param reply The move of the opponent.
+     * @return The search of the answer, which may still be running, or null if the reply was not pondered.
+     */
+    public Future<Integer> take(int reply) {
+        Future<Integer> answer = answers.remove(reply);
+        cancel();
+        return answer;
+    }
+
+    /**
+     * Cancels all searches, e.g. because the game is over.
+     */
+    public void cancel() {
+        answers.values().forEach(answer -> answer.cancel(true));
+        answers.clear();
+    }
+
+}
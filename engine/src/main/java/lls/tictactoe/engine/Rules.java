@@ -0,0 +1,81 @@
+package lls.tictactoe.engine;
+
+import lls.tictactoe.Tile;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The rules of the classic 3x3 game, evaluated on {@link Tile} objects.
+ */
+public final class Rules {
+
+    private Rules() {
+    }
+
+    /**
+     * Checks if the game has ended by evaluating the current state of the board.
+     *
+     * @param board The nine tiles of the board, in any order.
+     * @return The state of the winning player if the game has ended, otherwise Tile.State.NONE.
+     */
+    public static Tile.State checkIfGameEnded(Collection<Tile> board) {
+        // Convert the tiles to a list and sort them by their position
+        List<Tile> tiles = new ArrayList<>(board);
+        tiles.sort(Comparator.comparingInt(Tile::getPosition));
+
+        // Check rows for a winning state
+        for (int i = 0; i < 7; i += 3) {
+            if (haveSameNotNoneState(tiles.get(i), tiles.get(i + 1)) && haveSameNotNoneState(tiles.get(i), tiles.get(i + 2))) {
+                return tiles.get(i).getState();
+            }
+        }
+
+        // Check columns for a winning state
+        for (int i = 0; i < 3; i++) {
+            if (haveSameNotNoneState(tiles.get(i), tiles.get(i + 3)) && haveSameNotNoneState(tiles.get(i), tiles.get(i + 6))) {
+                return tiles.get(i).getState();
+            }
+        }
+
+        // Check diagonals for a winning state
+        if (haveSameNotNoneState(tiles.get(0), tiles.get(4)) && haveSameNotNoneState(tiles.get(0), tiles.get(8))) {
+            return tiles.getFirst().getState();
+        }
+
+        if (haveSameNotNoneState(tiles.get(2), tiles.get(4)) && haveSameNotNoneState(tiles.get(2), tiles.get(6))) {
+            return tiles.get(2).getState();
+        }
+
+        // Return NONE if no winning state is found
+        return Tile.State.NONE;
+    }
+
+    /**
+     * Checks if the game is a draw.
+     * <p>
+     * This method evaluates the current state of the board to determine if all tiles are occupied,
+     * and no winning move is possible, indicating a draw.
+     *
+     * @param board The nine tiles of the board, in any order.
+     * @return true if the game is a draw (i.e., no tiles are unoccupied), false otherwise.
+     */
+    public static boolean isDraw(Collection<Tile> board) {
+        return board.stream().noneMatch(Tile::isNotOccupied);
+    }
+
+    /**
+     * Checks if two tiles have the same state that is not NONE.
+     *
+     * @param first  The first tile to compare.
+     * @param second The second tile to compare.
+     * @return true if both tiles have the same state and it is not NONE, false otherwise.
+     */
+    private static boolean haveSameNotNoneState(Tile first, Tile second) {
+        if (first.getState().equals(Tile.State.NONE)) return false;
+        return first.getState().equals(second.getState());
+    }
+
+}
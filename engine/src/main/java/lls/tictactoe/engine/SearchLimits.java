@@ -0,0 +1,40 @@
+package lls.tictactoe.engine;
+
+import java.time.Duration;
+
+/**
+ * The budget of a search. The search stops as soon as either limit is reached.
+ *
+ * @param time  The maximum wall time of the search.
+ * @param nodes The maximum number of visited positions.
+ */
+public record SearchLimits(Duration time, long nodes) {
+
+    /**
+     * No limit at all; the search only stops once the position is solved.
+     */
+    public static final SearchLimits UNLIMITED = new SearchLimits(Duration.ofNanos(Long.MAX_VALUE), Long.MAX_VALUE);
+
+    public SearchLimits {
+        if (time.isNegative() || nodes < 0) {
+            throw new IllegalArgumentException("Negative search limit: " + time + ", " + nodes);
+        }
+    }
+
+    /**
+     * @param time The maximum wall time of the search.
+     * @return Limits which only restrict the wall time.
+     */
+    public static SearchLimits ofTime(Duration time) {
+        return new SearchLimits(time, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param nodes The maximum number of visited positions.
+     * @return Limits which only restrict the number of visited positions.
+     */
+    public static SearchLimits ofNodes(long nodes) {
+        return new SearchLimits(UNLIMITED.time(), nodes);
+    }
+
+}
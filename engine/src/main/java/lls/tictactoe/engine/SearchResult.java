@@ -0,0 +1,14 @@
+package lls.tictactoe.engine;
+
+/**
+ * The outcome of a search. {@link MonteCarloSearch} reports its score, depth and nodes on its own scale,
+ * see there.
+ *
+ * @param move  The best move found, or -1 if the game is already over.
+ * @param score The score of the move for the player to move.
+ *              Scores above {@link DeepeningSearch#WIN_THRESHOLD} are proven wins, scores below its negation proven losses.
+ * @param depth The depth of the last completed iteration.
+ * @param nodes The number of visited positions.
+ */
+public record SearchResult(int move, int score, int depth, long nodes) {
+}
@@ -0,0 +1,115 @@
+package lls.tictactoe.engine;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * The solved game: the best move and the game-theoretic value of every 3x3 position.
+ * <p>
+ * Positions are addressed by {@link Bitboard#index(int, int)} with the player to move as the first
+ * player, so every lookup is a single array access. The table is generated once by
+ * {@link SolvedTableGenerator} and shipped as the resource {@value #RESOURCE}.
+ * <p>
+ * File format: the magic number {@value #MAGIC}, the number of entries and then one byte with the
+ * best move (-1 if there is none) followed by one byte with the value for every entry.
+ */
+public final class SolvedTable {
+
+    /**
+     * The classpath location of the shipped table.
+     */
+    public static final String RESOURCE = "/tables/solved.bin";
+
+    /**
+     * Returned by {@link #getBestMove(int, int)} for terminal positions.
+     */
+    public static final int NO_MOVE = -1;
+
+    static final int MAGIC = 0x54545431;
+
+    private final byte[] entries;
+
+    SolvedTable(byte[] entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Returns the table shipped with the application.
+     * The table is read once, the first time this method is called.
+     *
+     * @return The shipped table, or an empty optional if the resource is missing or corrupt.
+     */
+    public static Optional<SolvedTable> getDefault() {
+        return Optional.ofNullable(Holder.INSTANCE);
+    }
+
+    /**
+     * Reads a table.
+     *
+     * @param in The stream to read the table from.
+     * @return The table.
+     * @throws IOException if the stream could not be read or does not contain a table.
+     */
+    public static SolvedTable read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC || data.readInt() != Bitboard.INDICES) {
+            throw new IOException("Not a solved table");
+        }
+        byte[] entries = new byte[2 * Bitboard.INDICES];
+        data.readFully(entries);
+        return new SolvedTable(entries);
+    }
+
+    /**
+     * Writes this table to a file.
+     *
+     * @param path The file to write to.
+     * @throws IOException if the file could not be written.
+     */
+    public void write(Path path) throws IOException {
+        try (DataOutputStream data = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            data.writeInt(MAGIC);
+            data.writeInt(Bitboard.INDICES);
+            data.write(entries);
+        }
+    }
+
+    /**
+     * Returns the best move of a position.
+     *
+     * @param ownMask      The mask of the player to move.
+     * @param opponentMask The mask of the player who made the last move.
+     * @return The position of the best move, or {@link #NO_MOVE} if the game is already over.
+     */
+    public int getBestMove(int ownMask, int opponentMask) {
+        return entries[2 * Bitboard.index(ownMask, opponentMask)];
+    }
+
+    /**
+     * Returns the game-theoretic value of a position.
+     *
+     * @param ownMask      The mask of the player to move.
+     * @param opponentMask The mask of the player who made the last move.
+     * @return The value of the position for the player to move (positive for a win, 0 for a draw, negative for a loss),
+     * also if the game is already over.
+     */
+    public int getValue(int ownMask, int opponentMask) {
+        return entries[2 * Bitboard.index(ownMask, opponentMask) + 1];
+    }
+
+    private static final class Holder {
+
+        private static final SolvedTable INSTANCE = load();
+
+        private static SolvedTable load() {
+            try (InputStream in = SolvedTable.class.getResourceAsStream(RESOURCE)) {
+                return in == null ? null : read(in);
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    }
+
+}
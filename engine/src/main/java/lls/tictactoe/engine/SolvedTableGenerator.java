@@ -0,0 +1,106 @@
+package lls.tictactoe.engine;
+
+import lls.tictactoe.Minimax;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Solves the whole game and writes the result as a {@link SolvedTable}.
+ * <p>
+ * Usage: {@code SolvedTableGenerator [output]} writes the table, by default to
+ * {@code engine/src/main/resources/tables/solved.bin}. {@code SolvedTableGenerator --verify} instead
+ * cross-checks the shipped table against a fresh {@link Minimax} search.
+ */
+public final class SolvedTableGenerator {
+
+    private SolvedTableGenerator() {
+    }
+
+    static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--verify")) {
+            SolvedTable table = SolvedTable.getDefault()
+                    .orElseThrow(() -> new IllegalStateException("Missing resource " + SolvedTable.RESOURCE));
+            int mismatches = verify(table);
+            System.out.println(mismatches == 0 ? "Table verified" : mismatches + " mismatches");
+            if (mismatches != 0) System.exit(1);
+            return;
+        }
+
+        Path output = Path.of(args.length > 0 ? args[0] : "engine/src/main/resources/tables/solved.bin");
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        generate().write(output);
+        System.out.println("Wrote " + output);
+    }
+
+    /**
+     * Solves every position. Finished games have no best move, but still their value, so a winning move can be
+     * valued by looking up the position after it.
+     *
+     * @return The solved table.
+     */
+    public static SolvedTable generate() {
+        byte[] entries = new byte[2 * Bitboard.INDICES];
+        for (int own = 0; own <= Bitboard.FULL; own++) {
+            for (int opponent = 0; opponent <= Bitboard.FULL; opponent++) {
+                if ((own & opponent) != 0) continue;
+                int index = Bitboard.index(own, opponent);
+                if (isOver(own, opponent)) {
+                    entries[2 * index] = SolvedTable.NO_MOVE;
+                    entries[2 * index + 1] = (byte) terminalValue(own, opponent);
+                    continue;
+                }
+                entries[2 * index] = (byte) Minimax.getBestMove(own, opponent);
+                entries[2 * index + 1] = (byte) Minimax.evaluate(own, opponent);
+            }
+        }
+        return new SolvedTable(entries);
+    }
+
+    /**
+     * Compares a table against the search for every position.
+     *
+     * @param table The table to check.
+     * @return The number of positions for which the table disagrees with the search.
+     */
+    public static int verify(SolvedTable table) {
+        int mismatches = 0;
+        for (int own = 0; own <= Bitboard.FULL; own++) {
+            for (int opponent = 0; opponent <= Bitboard.FULL; opponent++) {
+                if ((own & opponent) != 0) continue;
+                int move = table.getBestMove(own, opponent);
+                if (isOver(own, opponent)) {
+                    if (move != SolvedTable.NO_MOVE || table.getValue(own, opponent) != terminalValue(own, opponent)) {
+                        mismatches++;
+                    }
+                    continue;
+                }
+                int value = Minimax.evaluate(own, opponent);
+                // The move may differ from the search if several moves are equally good, its value may not
+                if (table.getValue(own, opponent) != value
+                        || move == SolvedTable.NO_MOVE
+                        || (Bitboard.empty(own, opponent) & Bitboard.bit(move)) == 0
+                        || -Minimax.evaluate(opponent, own | Bitboard.bit(move)) != value) {
+                    mismatches++;
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * Values a finished game like {@link Minimax#analyze(int, int)} does.
+     */
+    private static int terminalValue(int own, int opponent) {
+        int emptyCells = Integer.bitCount(Bitboard.empty(own, opponent));
+        if (Bitboard.isWin(opponent)) return -(emptyCells + 1);
+        if (Bitboard.isWin(own)) return emptyCells + 1;
+        return 0;
+    }
+
+    private static boolean isOver(int own, int opponent) {
+        return Bitboard.isWin(own) || Bitboard.isWin(opponent) || Bitboard.isFull(own, opponent);
+    }
+
+}
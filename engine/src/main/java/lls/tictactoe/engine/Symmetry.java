@@ -0,0 +1,85 @@
+package lls.tictactoe.engine;
+
+/**
+ * The symmetry group of the 3x3 board (four rotations, each optionally mirrored).
+ * <p>
+ * Positions which can be transformed into each other by one of these eight symmetries have the same
+ * game-theoretic value, so the engine only needs to solve one representative of each class.
+ * The transformations are precomputed for every possible mask, which turns canonicalization into
+ * sixteen array lookups.
+ */
+public final class Symmetry {
+
+    /**
+     * The number of symmetries of the board.
+     */
+    public static final int COUNT = 8;
+
+    /**
+     * For every symmetry, the transformed mask of every possible 9-bit mask.
+     */
+    private static final int[][] TRANSFORMED = new int[COUNT][Bitboard.FULL + 1];
+
+    static {
+        for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+            int[] permutation = new int[Bitboard.CELLS];
+            for (int cell = 0; cell < Bitboard.CELLS; cell++) {
+                int row = cell / 3;
+                int column = cell % 3;
+                // Rotate by 90 degrees as often as needed
+                for (int rotation = 0; rotation < symmetry % 4; rotation++) {
+                    int rotatedRow = column;
+                    column = 2 - row;
+                    row = rotatedRow;
+                }
+                // Mirror the second half of the group
+                if (symmetry >= 4) {
+                    column = 2 - column;
+                }
+                permutation[cell] = row * 3 + column;
+            }
+            for (int mask = 0; mask <= Bitboard.FULL; mask++) {
+                int transformed = 0;
+                for (int cell = 0; cell < Bitboard.CELLS; cell++) {
+                    if ((mask & Bitboard.bit(cell)) != 0) {
+                        transformed |= Bitboard.bit(permutation[cell]);
+                    }
+                }
+                TRANSFORMED[symmetry][mask] = transformed;
+            }
+        }
+    }
+
+    private Symmetry() {
+    }
+
+    /**
+     * Applies a symmetry to a mask.
+     *
+     * @param symmetry The index of the symmetry (0 is the identity).
+     * @param mask     The mask to transform.
+     * @return The transformed mask.
+     */
+    public static int transform(int symmetry, int mask) {
+        return TRANSFORMED[symmetry][mask];
+    }
+
+    /**
+     * Returns the canonical key of a position.
+     * <p>
+     * The key packs both masks into 18 bits ({@code own | opponent << 9}) and is the smallest such
+     * value over all symmetries, so all eight equivalent positions share the same key.
+     *
+     * @param own      The mask of the player to move.
+     * @param opponent The mask of the opponent.
+     * @return The canonical 18-bit key of the position.
+     */
+    public static int canonicalKey(int own, int opponent) {
+        int key = Integer.MAX_VALUE;
+        for (int[] transformed : TRANSFORMED) {
+            key = Math.min(key, transformed[own] | transformed[opponent] << Bitboard.CELLS);
+        }
+        return key;
+    }
+
+}
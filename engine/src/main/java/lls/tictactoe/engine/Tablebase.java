@@ -0,0 +1,195 @@
+package lls.tictactoe.engine;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The solved game of a small board other than 3x3, e.g. 4x4 with 3 or 4 in a row, generated by
+ * {@link TablebaseGenerator}.
+ * <p>
+ * Unlike the {@link SolvedTable}, the table is not read onto the heap: the file is memory-mapped into an off-heap
+ * {@link MemorySegment}, so a 4x4 table (41 MiB) costs neither heap nor start-up time, and the operating system
+ * shares its pages between processes. A position is addressed by {@link #index(Board)}, with one byte per position.
+ * <p>
+ * File format: the magic number {@value #MAGIC}, the width, the height and k of the board (each an int), then one
+ * byte for every index: the value of the position for the player to move, in the same scale as
+ * {@link SolvedTable#getValue(int, int)}, or {@link #ILLEGAL} if the position cannot occur in a game.
+ * As in the solved table, a won position has a value as well: it is lost for the player to move.
+ */
+public final class Tablebase implements AutoCloseable {
+
+    /**
+     * The value of positions which cannot occur in a game.
+     */
+    public static final int ILLEGAL = Byte.MIN_VALUE;
+
+    /**
+     * The largest number of cells of a board, as there are 3 to the power of cells positions.
+     */
+    public static final int MAX_CELLS = 16;
+
+    static final int MAGIC = 0x54544231;
+
+    static final int HEADER_BYTES = 16;
+
+    static final ValueLayout.OfInt HEADER_INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+    /**
+     * The powers of 3, the weight of every cell in the index.
+     */
+    private static final int[] POWERS = new int[MAX_CELLS + 1];
+
+    static {
+        POWERS[0] = 1;
+        for (int i = 1; i < POWERS.length; i++) {
+            POWERS[i] = POWERS[i - 1] * 3;
+        }
+    }
+
+    private final Arena arena;
+    private final MemorySegment entries;
+    private final int width;
+    private final int height;
+    private final int k;
+
+    private Tablebase(Arena arena, MemorySegment entries, int width, int height, int k) {
+        this.arena = arena;
+        this.entries = entries;
+        this.width = width;
+        this.height = height;
+        this.k = k;
+    }
+
+    /**
+     * Maps a table. The mapping can be read by any thread until the table is closed.
+     *
+     * @param path The table file.
+     * @return The table.
+     * @throws IOException if the file cannot be read or is not a table.
+     */
+    public static Tablebase open(Path path) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MemorySegment file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            if (file.byteSize() < HEADER_BYTES || file.get(HEADER_INT, 0) != MAGIC) {
+                throw new IOException("Not a tablebase: " + path);
+            }
+            int width = file.get(HEADER_INT, 4);
+            int height = file.get(HEADER_INT, 8);
+            int k = file.get(HEADER_INT, 12);
+            if (width < 1 || height < 1 || width * height > MAX_CELLS
+                    || file.byteSize() != HEADER_BYTES + (long) size(width * height)) {
+                throw new IOException("Corrupt tablebase: " + path);
+            }
+            // The mapping stays valid after the channel is closed
+            return new Tablebase(arena, file.asSlice(HEADER_BYTES), width, height, k);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @param board A board.
+     * @return true if the table holds the positions of the board's size and rules, false otherwise.
+     */
+    public boolean covers(Board board) {
+        return board.getWidth() == width && board.getHeight() == height && board.getK() == k;
+    }
+
+    /**
+     * Returns the game-theoretic value of a position for the player to move, i.e. {@link Board#getPlayerToMove()}.
+     *
+     * @param board A position covered by this table.
+     * @return The value of the position (positive for a win, 0 for a draw, negative for a loss),
+     * or {@link #ILLEGAL} if the position cannot occur in a game.
+     * @throws IllegalArgumentException if the table does not cover the board.
+     */
+    public int getValue(Board board) {
+        if (!covers(board)) throw new IllegalArgumentException("Not covered: " + board);
+        return entries.get(ValueLayout.JAVA_BYTE, index(board));
+    }
+
+    /**
+     * Returns the best move of a position: the move to the position with the lowest value for the opponent.
+     *
+     * @param board A position covered by this table.
+     * @return The best move, or -1 if the game is over or the position cannot occur in a game.
+     * @throws IllegalArgumentException if the table does not cover the board.
+     */
+    public int getBestMove(Board board) {
+        int value = getValue(board);
+        if (value == ILLEGAL || board.isOver()) return -1;
+        int index = index(board);
+        int player = board.getPlayerToMove();
+        int bestMove = -1;
+        int bestValue = Integer.MIN_VALUE;
+        for (int cell = 0; cell < board.size(); cell++) {
+            if (board.get(cell) != Board.EMPTY) continue;
+            int childValue = -entries.get(ValueLayout.JAVA_BYTE, index + POWERS[cell] * player);
+            if (childValue > bestValue) {
+                bestValue = childValue;
+                bestMove = cell;
+            }
+        }
+        return bestMove;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Unmaps the table. It must not be used by any thread afterwards.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    /**
+     * Returns the index of a position: every cell is a base-3 digit ({@link Board#EMPTY}, {@link Board#X} or
+     * {@link Board#O}), with cell 0 as the least significant digit.
+     *
+     * @param board A board with at most {@link #MAX_CELLS} cells.
+     * @return The index of the position.
+     */
+    static int index(Board board) {
+        int index = 0;
+        for (int cell = board.size() - 1; cell >= 0; cell--) {
+            index = index * 3 + board.get(cell);
+        }
+        return index;
+    }
+
+    /**
+     * @param cell A cell.
+     * @return The amount by which the index grows when a mark of value 1 is placed on the cell.
+     */
+    static int power(int cell) {
+        return POWERS[cell];
+    }
+
+    /**
+     * @param cells The number of cells of a board.
+     * @return The number of indices, 3 to the power of cells.
+     */
+    static int size(int cells) {
+        return POWERS[cells];
+    }
+
+}
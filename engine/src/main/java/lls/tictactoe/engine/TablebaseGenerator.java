@@ -0,0 +1,242 @@
+package lls.tictactoe.engine;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Solves a small board by retrograde analysis and writes the result as a {@link Tablebase}.
+ * <p>
+ * Usage: {@code TablebaseGenerator [--width n] [--height n] [--k n] [--output file]}, by default 4x4 with 3 in a row,
+ * written to {@code tables/4x4k3.tb}.
+ * <p>
+ * Every move adds a mark, so a position only depends on positions with one more mark. The positions are therefore
+ * solved layer by layer, from the full board back to the empty one: the value of a position is the best of the
+ * negated values of its successors, which are all solved already. Only positions with legal mark counts are
+ * enumerated, by combining the two halves of the board, and the positions of a layer are solved in parallel, as they
+ * do not depend on each other. The table is written straight into the memory-mapped file.
+ */
+public final class TablebaseGenerator {
+
+    private final int cells;
+
+    /**
+     * The cells of every row of k cells, one mask per row.
+     */
+    private final int[] lines;
+
+    /**
+     * The number of cells of the low half of the board, the remaining cells form the high half.
+     */
+    private final int lowCells;
+
+    private TablebaseGenerator(int width, int height, int k) {
+        // Let the board validate the dimensions
+        new Board(width, height, k);
+        if (width * height > Tablebase.MAX_CELLS) {
+            throw new IllegalArgumentException("Board too large for a tablebase: " + width + "x" + height);
+        }
+        this.cells = width * height;
+        this.lines = lines(width, height, k);
+        this.lowCells = cells / 2;
+    }
+
+    static void main(String[] args) throws IOException {
+        int width = 4;
+        int height = 4;
+        int k = 3;
+        Path output = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--width" -> width = Integer.parseInt(args[i + 1]);
+                case "--height" -> height = Integer.parseInt(args[i + 1]);
+                case "--k" -> k = Integer.parseInt(args[i + 1]);
+                case "--output" -> output = Path.of(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (output == null) output = Path.of("tables", width + "x" + height + "k" + k + ".tb");
+
+        long start = System.nanoTime();
+        generate(width, height, k, output);
+        System.out.printf("Wrote %s in %.1f s%n", output, (System.nanoTime() - start) / 1e9);
+        try (Tablebase tablebase = Tablebase.open(output)) {
+            System.out.println("Value of the empty board: " + tablebase.getValue(new Board(width, height, k)));
+        }
+    }
+
+    /**
+     * Solves every position of a board and writes the table.
+     *
+     * @param width  The number of columns.
+     * @param height The number of rows.
+     * @param k      The number of marks in a row needed to win.
+     * @param output The file to write, which is replaced if it exists.
+     * @throws IOException              if the file could not be written.
+     * @throws IllegalArgumentException if the board is invalid or has more than {@link Tablebase#MAX_CELLS} cells.
+     */
+    public static void generate(int width, int height, int k, Path output) throws IOException {
+        TablebaseGenerator generator = new TablebaseGenerator(width, height, k);
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             Arena arena = Arena.ofShared()) {
+            MemorySegment file = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    Tablebase.HEADER_BYTES + (long) Tablebase.size(generator.cells), arena);
+            MemorySegment entries = file.asSlice(Tablebase.HEADER_BYTES);
+            entries.fill((byte) Tablebase.ILLEGAL);
+            generator.solve(entries);
+
+            // Write the header last, so an interrupted generation does not leave a valid table behind
+            file.set(Tablebase.HEADER_INT, 4, width);
+            file.set(Tablebase.HEADER_INT, 8, height);
+            file.set(Tablebase.HEADER_INT, 12, k);
+            file.set(Tablebase.HEADER_INT, 0, Tablebase.MAGIC);
+            file.force();
+        }
+    }
+
+    private void solve(MemorySegment entries) {
+        Half low = new Half(lowCells);
+        Half high = new Half(cells - lowCells);
+        for (int marks = cells; marks >= 0; marks--) {
+            // X moves first, so X has as many marks as O or one more
+            int xTotal = (marks + 1) / 2;
+            int oTotal = marks / 2;
+            List<int[]> groups = new ArrayList<>();
+            for (int xLow = 0; xLow <= Math.min(xTotal, lowCells); xLow++) {
+                for (int oLow = 0; oLow <= Math.min(oTotal, lowCells - xLow); oLow++) {
+                    int xHigh = xTotal - xLow;
+                    int oHigh = oTotal - oLow;
+                    if (xHigh + oHigh > cells - lowCells) continue;
+                    groups.add(new int[]{xLow, oLow, xHigh, oHigh});
+                }
+            }
+            byte toMove = marks % 2 == 0 ? Board.X : Board.O;
+            int empty = cells - marks;
+            for (int[] group : groups) {
+                int[] lowHalves = low.byCount[group[0]][group[1]];
+                int[] highHalves = high.byCount[group[2]][group[3]];
+                IntStream.range(0, highHalves.length).parallel().forEach(h -> {
+                    int highHalf = highHalves[h];
+                    for (int lowHalf : lowHalves) {
+                        int index = lowHalf + highHalf * Tablebase.size(lowCells);
+                        int xMask = low.xMasks[lowHalf] | high.xMasks[highHalf] << lowCells;
+                        int oMask = low.oMasks[lowHalf] | high.oMasks[highHalf] << lowCells;
+                        int value = toMove == Board.X
+                                ? solve(entries, index, xMask, oMask, toMove, empty)
+                                : solve(entries, index, oMask, xMask, toMove, empty);
+                        entries.set(ValueLayout.JAVA_BYTE, index, (byte) value);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Solves a position whose successors are all solved.
+     *
+     * @param own      The cells of the player to move.
+     * @param opponent The cells of the player who made the last move.
+     * @return The value of the position for the player to move.
+     */
+    private int solve(MemorySegment entries, int index, int own, int opponent, byte toMove, int empty) {
+        if (hasLine(own)) return Tablebase.ILLEGAL;
+        if (hasLine(opponent)) {
+            // The last move must have completed the row, otherwise the game would have ended before it
+            for (int rest = opponent; rest != 0; rest &= rest - 1) {
+                if (!hasLine(opponent & ~Integer.lowestOneBit(rest))) return -(empty + 1);
+            }
+            return Tablebase.ILLEGAL;
+        }
+        if (empty == 0) return 0;
+
+        int best = Integer.MIN_VALUE;
+        for (int free = ~(own | opponent) & ((1 << cells) - 1); free != 0; free &= free - 1) {
+            int cell = Integer.numberOfTrailingZeros(free);
+            best = Math.max(best, -entries.get(ValueLayout.JAVA_BYTE, index + Tablebase.power(cell) * toMove));
+        }
+        return best;
+    }
+
+    private boolean hasLine(int mask) {
+        for (int line : lines) {
+            if ((mask & line) == line) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return The masks of every row of k cells on the board, in all four directions.
+     */
+    private static int[] lines(int width, int height, int k) {
+        List<Integer> lines = new ArrayList<>();
+        int[][] directions = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                for (int[] direction : directions) {
+                    int endX = x + direction[0] * (k - 1);
+                    int endY = y + direction[1] * (k - 1);
+                    if (endX < 0 || endX >= width || endY < 0 || endY >= height) continue;
+                    int line = 0;
+                    for (int i = 0; i < k; i++) {
+                        line |= 1 << ((y + direction[1] * i) * width + x + direction[0] * i);
+                    }
+                    lines.add(line);
+                }
+            }
+        }
+        return lines.stream().distinct().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Every assignment of marks to half of the cells, grouped by the number of X and O marks.
+     */
+    private static final class Half {
+
+        private final int[] xMasks;
+        private final int[] oMasks;
+
+        /**
+         * The indices of the assignments with x X marks and o O marks, at [x][o].
+         */
+        private final int[][][] byCount;
+
+        private Half(int cells) {
+            int size = Tablebase.size(cells);
+            xMasks = new int[size];
+            oMasks = new int[size];
+            int[][] counts = new int[cells + 1][cells + 1];
+            for (int index = 0; index < size; index++) {
+                int digits = index;
+                for (int cell = 0; cell < cells; cell++, digits /= 3) {
+                    if (digits % 3 == Board.X) xMasks[index] |= 1 << cell;
+                    if (digits % 3 == Board.O) oMasks[index] |= 1 << cell;
+                }
+                counts[Integer.bitCount(xMasks[index])][Integer.bitCount(oMasks[index])]++;
+            }
+            byCount = new int[cells + 1][cells + 1][];
+            for (int x = 0; x <= cells; x++) {
+                for (int o = 0; o <= cells; o++) {
+                    byCount[x][o] = new int[counts[x][o]];
+                    counts[x][o] = 0;
+                }
+            }
+            for (int index = 0; index < size; index++) {
+                int x = Integer.bitCount(xMasks[index]);
+                int o = Integer.bitCount(oMasks[index]);
+                byCount[x][o][counts[x][o]++] = index;
+            }
+        }
+    }
+
+}
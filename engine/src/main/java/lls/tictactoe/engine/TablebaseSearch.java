@@ -0,0 +1,56 @@
+package lls.tictactoe.engine;
+
+import java.util.function.BiFunction;
+
+/**
+ * Plays perfectly on the boards a {@link Tablebase} covers, and searches on all others.
+ * <p>
+ * A probe costs one table read for the value and one per free cell for the move, so covered positions are answered
+ * in microseconds, no matter how deep the game tree below them is. Positions the table does not cover, because the
+ * board has a different size or rules, or because it is not the turn of the given player, are passed on to the
+ * fallback search, e.g. {@code new TablebaseSearch(tablebase, new DeepeningSearch(limits)::search)}.
+ */
+public final class TablebaseSearch {
+
+    private final Tablebase tablebase;
+    private final BiFunction<Board, Byte, SearchResult> fallback;
+
+    /**
+     * @param tablebase The table to probe.
+     * @param fallback  The search for positions the table does not cover.
+     */
+    public TablebaseSearch(Tablebase tablebase, BiFunction<Board, Byte, SearchResult> fallback) {
+        this.tablebase = tablebase;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Looks up or searches the best move.
+     * <p>
+     * The score of a probed position is a proven result on the scale of {@link DeepeningSearch}, and its depth is
+     * the number of moves until the game is decided.
+     *
+     * @param board  The position to search.
+     * @param player The player to move.
+     * @return The best move.
+     */
+    public SearchResult search(Board board, byte player) {
+        if (!tablebase.covers(board) || player != board.getPlayerToMove()) {
+            return fallback.apply(board, player);
+        }
+        int value = tablebase.getValue(board);
+        if (value == Tablebase.ILLEGAL) return fallback.apply(board, player);
+        if (board.isOver()) return new SearchResult(-1, 0, 0, 0);
+
+        // A value counts the free cells left after the deciding move, so the distance follows from the free cells now
+        int empty = board.size() - board.getMarks();
+        int plies = value == 0 ? empty : empty - Math.abs(value) + 1;
+        int score = Integer.signum(value) * (DeepeningSearch.WIN - plies);
+        return new SearchResult(tablebase.getBestMove(board), score, plies, 1);
+    }
+
+    public Tablebase getTablebase() {
+        return tablebase;
+    }
+
+}
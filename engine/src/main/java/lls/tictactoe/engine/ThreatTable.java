@@ -0,0 +1,69 @@
+package lls.tictactoe.engine;
+
+/**
+ * The immediate threats of every 3x3 position, precomputed once.
+ * <p>
+ * For every position, indexed by {@link Bitboard#index(int, int)} with the player to move first, the table holds
+ * the cells on which the player to move completes a line (winning cells) and the cells on which the opponent
+ * would complete a line on their next move (blocking cells). Both masks are packed into one int, so the
+ * threats of a position cost a single array lookup.
+ */
+public final class ThreatTable {
+
+    private static final int[] THREATS = new int[Bitboard.INDICES];
+
+    static {
+        for (int own = 0; own <= Bitboard.FULL; own++) {
+            for (int opponent = 0; opponent <= Bitboard.FULL; opponent++) {
+                if ((own & opponent) != 0) continue;
+                THREATS[Bitboard.index(own, opponent)] = completions(own, opponent)
+                        | completions(opponent, own) << Bitboard.CELLS;
+            }
+        }
+    }
+
+    private ThreatTable() {
+    }
+
+    /**
+     * Looks up the threats of a position.
+     *
+     * @param ownMask      The mask of the player to move.
+     * @param opponentMask The mask of the opponent.
+     * @return The packed threats, use {@link #winningCells(int)} and {@link #blockingCells(int)} to unpack them.
+     */
+    public static int get(int ownMask, int opponentMask) {
+        return THREATS[Bitboard.index(ownMask, opponentMask)];
+    }
+
+    /**
+     * @param threats Packed threats returned by {@link #get(int, int)}.
+     * @return The mask of the empty cells on which the player to move completes a line.
+     */
+    public static int winningCells(int threats) {
+        return threats & Bitboard.FULL;
+    }
+
+    /**
+     * @param threats Packed threats returned by {@link #get(int, int)}.
+     * @return The mask of the empty cells on which the opponent would complete a line.
+     */
+    public static int blockingCells(int threats) {
+        return threats >>> Bitboard.CELLS;
+    }
+
+    /**
+     * Collects the empty cells which complete a line of the given player.
+     */
+    private static int completions(int player, int other) {
+        int cells = 0;
+        for (int free = Bitboard.empty(player, other); free != 0; free &= free - 1) {
+            int move = free & -free;
+            if (Bitboard.isWin(player | move)) {
+                cells |= move;
+            }
+        }
+        return cells;
+    }
+
+}
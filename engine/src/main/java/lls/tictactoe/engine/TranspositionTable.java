@@ -0,0 +1,130 @@
+package lls.tictactoe.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stores the results of searched 3x3 positions.
+ * <p>
+ * Entries are keyed by {@link Symmetry#canonicalKey(int, int)}, so a position and its seven
+ * symmetric variants share one slot. As there are only 2^18 possible keys, the table is a plain
+ * directly indexed array and never has to resolve collisions. Values are always stored from the
+ * perspective of the player to move, which makes them independent of the side the AI plays.
+ * <p>
+ * Because the search prunes with alpha-beta windows, a stored value is either exact or only a
+ * lower or upper bound of the real value, see {@link Bound}.
+ */
+public final class TranspositionTable {
+
+    /**
+     * Returned by {@link #get(int)} if the position has not been stored yet.
+     */
+    public static final int EMPTY = 0;
+
+    /**
+     * The stored values are offset by this amount, so they are never negative.
+     * Together with the two bound bits, every value between -16 and 15 fits into one byte.
+     */
+    private static final int OFFSET = 16;
+
+    private static final Bound[] BOUNDS = Bound.values();
+
+    private final byte[] entries = new byte[1 << (2 * Bitboard.CELLS)];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Looks up a position.
+     *
+     * @param key The canonical key of the position.
+     * @return The packed entry of the position, or {@link #EMPTY} if it has not been stored yet.
+     * Use {@link #value(int)} and {@link #bound(int)} to unpack it.
+     */
+    public int get(int key) {
+        byte entry = entries[key];
+        if (entry == EMPTY) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * Stores the result of a position.
+     *
+     * @param key   The canonical key of the position.
+     * @param value The value of the position for the player to move.
+     * @param bound Whether the value is exact or only a bound.
+     */
+    public void put(int key, int value, Bound bound) {
+        entries[key] = (byte) ((value + OFFSET) << 2 | (bound.ordinal() + 1));
+    }
+
+    /**
+     * @param entry A packed entry which is not {@link #EMPTY}.
+     * @return The value stored in the entry.
+     */
+    public static int value(int entry) {
+        return (entry >> 2) - OFFSET;
+    }
+
+    /**
+     * @param entry A packed entry which is not {@link #EMPTY}.
+     * @return The kind of value stored in the entry.
+     */
+    public static Bound bound(int entry) {
+        return BOUNDS[(entry & 0b11) - 1];
+    }
+
+    /**
+     * @return The number of lookups which found a stored value.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of lookups which did not find a stored value.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Removes all stored values and resets the statistics.
+     */
+    public void clear() {
+        Arrays.fill(entries, (byte) EMPTY);
+        hits.reset();
+        misses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "TranspositionTable{" +
+                "hits=" + getHits() +
+                ", misses=" + getMisses() +
+                '}';
+    }
+
+    /**
+     * The kind of value stored for a position.
+     */
+    public enum Bound {
+        /**
+         * The value is the real value of the position.
+         */
+        EXACT,
+        /**
+         * The real value is at least the stored value.
+         */
+        LOWER,
+        /**
+         * The real value is at most the stored value.
+         */
+        UPPER
+    }
+
+}
@@ -0,0 +1,141 @@
+package lls.tictactoe.history;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A read-only view of the games stored in a log, see {@link GameRepository}.
+ * <p>
+ * The log is memory-mapped as a single {@link MemorySegment}, so reading a game is a few absolute reads from the
+ * page cache, and scanning tens of millions of games neither copies the file nor depends on the heap size.
+ * The records differ in size, so opening the archive walks over them once and remembers the offset of every
+ * {@value #INDEX_INTERVAL}th game. The archive is immutable; games appended after it was opened are not part of it.
+ */
+public final class GameArchive {
+
+    /**
+     * The number of games between two remembered offsets.
+     */
+    private static final int INDEX_INTERVAL = 1024;
+
+    private final MemorySegment file;
+    private final long[] index;
+    private final long size;
+
+    private GameArchive(MemorySegment file, long[] index, long size) {
+        this.file = file;
+        this.index = index;
+        this.size = size;
+    }
+
+    /**
+     * Maps the games of a log.
+     *
+     * @param path The log file.
+     * @return The games stored in the log when this method is called.
+     * @throws IOException if the file cannot be read or is not a game log.
+     */
+    public static GameArchive open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            checkHeader(channel, path);
+            // The mapping outlives the channel, and is released once the archive is no longer reachable
+            MemorySegment file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), Arena.ofAuto());
+            long[] index = new long[16];
+            long size = 0;
+            for (long offset = GameRepository.HEADER_BYTES; ; size++) {
+                long next = GameRecord.next(file, offset);
+                if (next < 0) break;
+                if (size % INDEX_INTERVAL == 0) {
+                    int slot = (int) (size / INDEX_INTERVAL);
+                    if (slot == index.length) index = Arrays.copyOf(index, 2 * slot);
+                    index[slot] = offset;
+                }
+                offset = next;
+            }
+            return new GameArchive(file, index, size);
+        }
+    }
+
+    static void checkHeader(FileChannel channel, Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(GameRepository.HEADER_BYTES);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) break;
+        }
+        if (header.position() < GameRepository.HEADER_BYTES || header.getInt(0) != GameRepository.MAGIC) {
+            throw new IOException("Not a game log: " + path);
+        }
+        if (header.getInt(4) != GameRepository.VERSION) {
+            throw new IOException("Game log of an unsupported format: " + path);
+        }
+    }
+
+    /**
+     * Finds the end of the last complete record, which is where the next game has to be appended.
+     *
+     * @param file The mapped log, including its header.
+     * @return The offset after the last complete record.
+     */
+    static long end(MemorySegment file) {
+        long offset = GameRepository.HEADER_BYTES;
+        for (long next; (next = GameRecord.next(file, offset)) >= 0; ) {
+            offset = next;
+        }
+        return offset;
+    }
+
+    /**
+     * @return The number of stored games.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Reads a game. This skips over at most {@value #INDEX_INTERVAL} records from the nearest remembered offset, so
+     * {@link #stream()} is the faster way to read many games.
+     *
+     * @param index The number of the game, in the order they were saved.
+     * @return The game.
+     * @throws IndexOutOfBoundsException if there is no such game.
+     */
+    public GameRecord get(long index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Game " + index + " of " + size);
+        long offset = this.index[(int) (index / INDEX_INTERVAL)];
+        for (long skip = index % INDEX_INTERVAL; skip > 0; skip--) {
+            offset = GameRecord.next(file, offset);
+        }
+        return GameRecord.readFrom(file, offset);
+    }
+
+    /**
+     * Streams all games in the order they were saved. The stream can be made parallel: every block of
+     * {@value #INDEX_INTERVAL} games starts at a remembered offset, and reading a game does not change any state of
+     * the archive.
+     *
+     * @return The games.
+     */
+    public Stream<GameRecord> stream() {
+        int blocks = (int) ((size + INDEX_INTERVAL - 1) / INDEX_INTERVAL);
+        return IntStream.range(0, blocks).boxed().flatMap(this::block);
+    }
+
+    private Stream<GameRecord> block(int block) {
+        int count = (int) Math.min(INDEX_INTERVAL, size - (long) block * INDEX_INTERVAL);
+        GameRecord[] games = new GameRecord[count];
+        long offset = index[block];
+        for (int i = 0; i < count; i++) {
+            games[i] = GameRecord.readFrom(file, offset);
+            offset = GameRecord.next(file, offset);
+        }
+        return Arrays.stream(games);
+    }
+
+}
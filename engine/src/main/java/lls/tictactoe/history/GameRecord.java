@@ -0,0 +1,234 @@
+package lls.tictactoe.history;
+
+import lls.tictactoe.Tile;
+import lls.tictactoe.engine.Board;
+import lls.tictactoe.engine.Difficulty;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * A finished game on a board of any size.
+ * <p>
+ * Every record starts with a header of {@value #HEADER_BYTES} bytes: the timestamp in milliseconds, the width,
+ * the height and k of the board (one byte each), the winner, the number of moves (two bytes) and the lengths of
+ * both players' names (one byte each). The names follow, then the moves: one byte per move if the board has at most
+ * 256 cells, otherwise two. A classic game between a human and a difficulty takes about 30 bytes.
+ *
+ * @param timestamp When the game ended.
+ * @param width     The width of the board.
+ * @param height    The height of the board.
+ * @param k         The number of marks in a row which win.
+ * @param x         The name of the strategy which played X (see {@link lls.tictactoe.strategy.MoveStrategy#getName()}),
+ *                  or null if a human played X.
+ * @param o         The name of the strategy which played O, or null if a human played O.
+ * @param winner    The winner, or Tile.State.NONE for a draw.
+ * @param moves     The positions of the moves in the order they were played, starting with X.
+ */
+public record GameRecord(Instant timestamp, int width, int height, int k, String x, String o, Tile.State winner,
+                         int[] moves) {
+
+    /**
+     * The size of the fixed part of a record.
+     */
+    public static final int HEADER_BYTES = 16;
+
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfShort SHORT = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+    private static final Tile.State[] WINNERS = {Tile.State.NONE, Tile.State.X, Tile.State.O};
+
+    public GameRecord {
+        if (width < 1 || width > 255 || height < 1 || height > 255 || k < 1 || k > 255) {
+            throw new IllegalArgumentException("Invalid board: " + width + "x" + height + ", k=" + k);
+        }
+        if (moves.length > width * height) {
+            throw new IllegalArgumentException("A game has at most " + width * height + " moves, got " + moves.length);
+        }
+        for (int move : moves) {
+            if (move < 0 || move >= width * height) throw new IllegalArgumentException("Invalid move: " + move);
+        }
+        checkName(x);
+        checkName(o);
+        moves = moves.clone();
+    }
+
+    /**
+     * Creates a record of a game on the classic board, in which the AI played with a difficulty.
+     *
+     * @param x The difficulty which played X, or null if a human played X.
+     * @param o The difficulty which played O, or null if a human played O.
+     */
+    public GameRecord(Instant timestamp, Difficulty x, Difficulty o, Tile.State winner, int[] moves) {
+        this(timestamp, 3, 3, 3, name(x), name(o), winner, moves);
+    }
+
+    /**
+     * @return A copy of the moves.
+     */
+    @Override
+    public int[] moves() {
+        return moves.clone();
+    }
+
+    /**
+     * @return The number of moves.
+     */
+    public int length() {
+        return moves.length;
+    }
+
+    /**
+     * Replays the start of the game.
+     *
+     * @param plies The number of moves to replay.
+     * @return The board after the given number of moves.
+     */
+    public Board replay(int plies) {
+        Board board = new Board(width, height, k);
+        for (int i = 0; i < plies; i++) {
+            board.play(moves[i], i % 2 == 0 ? Board.X : Board.O);
+        }
+        return board;
+    }
+
+    /**
+     * @return The size of the encoded record.
+     */
+    int encodedSize() {
+        return HEADER_BYTES + nameBytes(x).length + nameBytes(o).length + moves.length * moveBytes(width * height);
+    }
+
+    /**
+     * Writes the record at the buffer's position.
+     */
+    void writeTo(ByteBuffer buffer) {
+        byte[] xName = nameBytes(x);
+        byte[] oName = nameBytes(o);
+        buffer.putLong(timestamp.toEpochMilli());
+        buffer.put((byte) width);
+        buffer.put((byte) height);
+        buffer.put((byte) k);
+        buffer.put((byte) (winner == Tile.State.NONE ? 0 : winner.ordinal() + 1));
+        buffer.putShort((short) moves.length);
+        buffer.put((byte) xName.length);
+        buffer.put((byte) oName.length);
+        buffer.put(xName);
+        buffer.put(oName);
+        boolean wide = moveBytes(width * height) == 2;
+        for (int move : moves) {
+            if (wide) {
+                buffer.putShort((short) move);
+            } else {
+                buffer.put((byte) move);
+            }
+        }
+    }
+
+    /**
+     * Finds the end of the record at an offset.
+     *
+     * @return The offset of the next record, or -1 if the record at the offset is not complete.
+     */
+    static long next(MemorySegment file, long offset) {
+        if (file.byteSize() - offset < HEADER_BYTES) return -1;
+        int cells = Byte.toUnsignedInt(file.get(ValueLayout.JAVA_BYTE, offset + 8))
+                * Byte.toUnsignedInt(file.get(ValueLayout.JAVA_BYTE, offset + 9));
+        long end = offset + HEADER_BYTES
+                + Byte.toUnsignedInt(file.get(ValueLayout.JAVA_BYTE, offset + 14))
+                + Byte.toUnsignedInt(file.get(ValueLayout.JAVA_BYTE, offset + 15))
+                + (long) Short.toUnsignedInt(file.get(SHORT, offset + 12)) * moveBytes(cells);
+        return end <= file.byteSize() ? end : -1;
+    }
+
+    /**
+     * Reads the complete record at an offset.
+     */
+    static GameRecord readFrom(MemorySegment file, long offset) {
+        long timestamp = file.get(LONG, offset);
+        int width = Byte.toUnsignedInt(file.get(ValueLayout.JAVA_BYTE, offset + 8));
+        int height = Byte.toUnsignedInt(file.get(ValueLayout.JAVA_BYTE, offset + 9));
+        int k = Byte.toUnsignedInt(file.get(ValueLayout.JAVA_BYTE, offset + 10));
+        int winner = file.get(ValueLayout.JAVA_BYTE, offset + 11) & 0x3;
+        int[] moves = new int[Short.toUnsignedInt(file.get(SHORT, offset + 12))];
+        int xLength = Byte.toUnsignedInt(file.get(ValueLayout.JAVA_BYTE, offset + 14));
+        int oLength = Byte.toUnsignedInt(file.get(ValueLayout.JAVA_BYTE, offset + 15));
+
+        long position = offset + HEADER_BYTES;
+        String x = readName(file, position, xLength);
+        position += xLength;
+        String o = readName(file, position, oLength);
+        position += oLength;
+        boolean wide = moveBytes(width * height) == 2;
+        for (int i = 0; i < moves.length; i++) {
+            if (wide) {
+                moves[i] = Short.toUnsignedInt(file.get(SHORT, position));
+                position += 2;
+            } else {
+                moves[i] = Byte.toUnsignedInt(file.get(ValueLayout.JAVA_BYTE, position++));
+            }
+        }
+        return new GameRecord(Instant.ofEpochMilli(timestamp), width, height, k, x, o, WINNERS[winner], moves);
+    }
+
+    private static String readName(MemorySegment file, long offset, int length) {
+        if (length == 0) return null;
+        byte[] bytes = file.asSlice(offset, length).toArray(ValueLayout.JAVA_BYTE);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int moveBytes(int cells) {
+        return cells <= 256 ? 1 : 2;
+    }
+
+    private static byte[] nameBytes(String name) {
+        return name == null ? new byte[0] : name.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A human is stored as an empty name, so a strategy needs a name of 1 to 255 bytes.
+     */
+    private static void checkName(String name) {
+        if (name != null && (name.isEmpty() || nameBytes(name).length > 255)) {
+            throw new IllegalArgumentException("Invalid player name: " + name);
+        }
+    }
+
+    private static String name(Difficulty difficulty) {
+        return difficulty == null ? null : difficulty.name().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof GameRecord record)) return false;
+        return timestamp.equals(record.timestamp) && width == record.width && height == record.height
+                && k == record.k && Objects.equals(x, record.x) && Objects.equals(o, record.o)
+                && winner == record.winner && Arrays.equals(moves, record.moves);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hash(timestamp, width, height, k, x, o, winner) + Arrays.hashCode(moves);
+    }
+
+    @Override
+    public String toString() {
+        return "GameRecord{" +
+                "timestamp=" + timestamp +
+                ", board=" + width + "x" + height + ", k=" + k +
+                ", x=" + (x == null ? "HUMAN" : x) +
+                ", o=" + (o == null ? "HUMAN" : o) +
+                ", winner=" + winner +
+                ", moves=" + Arrays.toString(moves) +
+                '}';
+    }
+
+}
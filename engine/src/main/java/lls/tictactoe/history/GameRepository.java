@@ -0,0 +1,172 @@
+package lls.tictactoe.history;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Stores finished games in an append-only binary log.
+ * <p>
+ * The log starts with the magic number {@value #MAGIC} and the format version {@value #VERSION}, followed by one
+ * {@link GameRecord} per game. Games are only ever appended, so a crash can at most leave a torn last record, which
+ * is cut off the next time the log is opened.
+ * <p>
+ * Saved games are buffered and written in batches; {@link #flush()} writes them out. The stored games are read
+ * through {@link #snapshot()}, or with {@link GameArchive#open(Path)} by another process.
+ * All methods are thread-safe, so the UI and headless runners can share a repository. Only one repository can have
+ * a log open for writing at a time, also across processes, so two writers never append to the same position.
+ */
+public final class GameRepository implements AutoCloseable {
+
+    static final int MAGIC = 0x54544731;
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 8;
+
+    /**
+     * The number of bytes written to the log in one go, a few thousand classic games.
+     */
+    private static final int BATCH_BYTES = 1 << 17;
+
+    /**
+     * The byte which is locked to claim the log for writing. It lies far beyond the end of the file, so the lock
+     * never keeps readers, such as a {@link GameArchive}, from reading the games.
+     */
+    private static final long LOCK_POSITION = Long.MAX_VALUE - 1;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BATCH_BYTES);
+
+    private GameRepository(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens a log, creating it if it does not exist.
+     *
+     * @param path The log file.
+     * @return The repository.
+     * @throws IOException if the file cannot be opened, is not a game log, or is already open for writing,
+     *                     by this or another process.
+     */
+    public static GameRepository open(Path path) throws IOException {
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            lock(channel, path);
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+                while (header.hasRemaining()) channel.write(header);
+            } else {
+                GameArchive.checkHeader(channel, path);
+                // Cut off a record which was only partially written
+                long end;
+                try (Arena arena = Arena.ofConfined()) {
+                    MemorySegment file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+                    end = GameArchive.end(file);
+                }
+                channel.truncate(end);
+            }
+            channel.position(channel.size());
+            return new GameRepository(path, channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Claims the log for writing. The lock is released when the channel is closed.
+     */
+    private static void lock(FileChannel channel, Path path) throws IOException {
+        FileLock lock;
+        try {
+            lock = channel.tryLock(LOCK_POSITION, 1, false);
+        } catch (OverlappingFileLockException e) {
+            // The log is already open in this JVM
+            lock = null;
+        }
+        if (lock == null) throw new IOException("The game log is already open for writing: " + path);
+    }
+
+    /**
+     * @return The default log in the user's home directory.
+     */
+    public static Path defaultPath() {
+        return Path.of(System.getProperty("user.home"), ".tictactoe", "games.log");
+    }
+
+    /**
+     * Appends a game. The game is buffered until the buffer is full or {@link #flush()} is called.
+     *
+     * @param game The finished game.
+     * @throws IOException if the buffer is full and cannot be written.
+     */
+    public synchronized void save(GameRecord game) throws IOException {
+        int size = game.encodedSize();
+        if (buffer.remaining() < size) writeBuffer();
+        if (size <= buffer.capacity()) {
+            game.writeTo(buffer);
+            return;
+        }
+        // A game on a huge board does not fit into the buffer, so it is written on its own
+        ByteBuffer record = ByteBuffer.allocate(size);
+        game.writeTo(record);
+        record.flip();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+    }
+
+    /**
+     * Writes all buffered games to the log.
+     *
+     * @throws IOException if the games cannot be written.
+     */
+    public synchronized void flush() throws IOException {
+        writeBuffer();
+    }
+
+    /**
+     * Writes all buffered games and maps the log for reading.
+     * The snapshot contains the games saved so far, later games need a new snapshot.
+     *
+     * @return The stored games.
+     * @throws IOException if the log cannot be written or mapped.
+     */
+    public GameArchive snapshot() throws IOException {
+        flush();
+        return GameArchive.open(path);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            writeBuffer();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+}
@@ -0,0 +1,208 @@
+package lls.tictactoe.instrumentation;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the cost of every move chosen by an engine: nodes visited, maximum depth, cache hits, wall time and
+ * bytes allocated.
+ * <p>
+ * Moves are published in two ways, which are enabled independently:
+ * <ul>
+ *     <li>as {@code lls.tictactoe.Move} events of the JDK Flight Recorder, enabled by the recording settings;</li>
+ *     <li>as in-process counters and histograms per engine, enabled by {@link #setEnabled(boolean)} or the
+ *     system property {@code lls.tictactoe.metrics}, which can be queried with {@link #getStatistics()} or
+ *     printed with {@link #dump()}.</li>
+ * </ul>
+ * When both are disabled, {@link #begin()} returns null and the searches only pay for one thread-local lookup
+ * per search, not per node.
+ * <p>
+ * A move is measured on the thread which chooses it. Work which a search hands to other threads (e.g. the parallel
+ * root split) is not attributed to the move.
+ */
+public final class EngineMetrics {
+
+    private static final ThreadLocal<Probe> CURRENT = new ThreadLocal<>();
+    private static final ConcurrentMap<String, EngineStatistics> STATISTICS = new ConcurrentHashMap<>();
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private static volatile boolean enabled = Boolean.getBoolean("lls.tictactoe.metrics");
+
+    private EngineMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables the in-process counters. Flight Recorder events are controlled by the recording.
+     */
+    public static void setEnabled(boolean enabled) {
+        EngineMetrics.enabled = enabled;
+    }
+
+    /**
+     * Starts measuring a move on the current thread.
+     *
+     * @return The probe to pass to {@link #end(Probe, String, int)}, or null if nothing is recorded.
+     */
+    public static Probe begin() {
+        MoveEvent event = new MoveEvent();
+        if (!enabled && !event.isEnabled()) return null;
+        Probe probe = new Probe(event);
+        CURRENT.set(probe);
+        event.begin();
+        return probe;
+    }
+
+    /**
+     * Finishes measuring a move and publishes it.
+     *
+     * @param probe  The probe returned by {@link #begin()}, nothing happens if it is null.
+     * @param engine The name of the engine which chose the move.
+     * @param move   The chosen move.
+     */
+    public static void end(Probe probe, String engine, int move) {
+        if (probe == null) return;
+        long wallNanos = System.nanoTime() - probe.startNanos;
+        long allocatedBytes = probe.startBytes < 0 ? -1 : allocatedBytes() - probe.startBytes;
+        CURRENT.remove();
+
+        MoveEvent event = probe.event;
+        event.end();
+        if (event.shouldCommit()) {
+            event.engine = engine;
+            event.move = move;
+            event.nodes = probe.nodes;
+            event.maxDepth = probe.maxDepth;
+            event.cacheHits = probe.cacheHits;
+            event.allocatedBytes = allocatedBytes;
+            event.commit();
+        }
+
+        if (enabled) {
+            STATISTICS.computeIfAbsent(engine, _ -> new EngineStatistics())
+                    .record(probe, wallNanos, allocatedBytes);
+        }
+    }
+
+    /**
+     * Adds the work of a search to the move which is measured on the current thread, if any.
+     * Searches call this once when they are finished.
+     *
+     * @param nodes     The number of positions visited.
+     * @param maxDepth  The deepest ply reached.
+     * @param cacheHits The number of transposition table hits.
+     */
+    public static void recordSearch(long nodes, int maxDepth, long cacheHits) {
+        Probe probe = CURRENT.get();
+        if (probe == null) return;
+        probe.nodes += nodes;
+        probe.maxDepth = Math.max(probe.maxDepth, maxDepth);
+        probe.cacheHits += cacheHits;
+    }
+
+    /**
+     * @return The statistics of every engine which made a move while the counters were enabled, by engine name.
+     */
+    public static Map<String, Statistics> getStatistics() {
+        Map<String, Statistics> statistics = new TreeMap<>();
+        STATISTICS.forEach((engine, engineStatistics) -> statistics.put(engine, engineStatistics.snapshot()));
+        return statistics;
+    }
+
+    /**
+     * @return The statistics of every engine as a table, one line per engine.
+     */
+    public static String dump() {
+        StringBuilder table = new StringBuilder(String.format("%-12s %10s %14s %12s %9s %10s %10s %10s %12s%n",
+                "Engine", "Moves", "Nodes", "Cache hits", "Depth", "p50 us", "p99 us", "Max us", "Bytes/move"));
+        getStatistics().forEach((engine, s) -> table.append(String.format("%-12s %,10d %,14d %,12d %9d %,10d %,10d %,10d %,12d%n",
+                engine, s.moves(), s.nodes(), s.cacheHits(), s.maxDepth(),
+                s.p50Micros(), s.p99Micros(), s.maxMicros(), s.bytesPerMove())));
+        return table.toString();
+    }
+
+    /**
+     * Clears all counters and histograms.
+     */
+    public static void reset() {
+        STATISTICS.clear();
+    }
+
+    private static long allocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean;
+        }
+        return null;
+    }
+
+    /**
+     * The measurement of one move, only touched by the thread which chooses the move.
+     */
+    public static final class Probe {
+
+        private final MoveEvent event;
+        private final long startNanos = System.nanoTime();
+        private final long startBytes = allocatedBytes();
+
+        private long nodes;
+        private int maxDepth;
+        private long cacheHits;
+
+        private Probe(MoveEvent event) {
+            this.event = event;
+        }
+    }
+
+    /**
+     * The counters of one engine.
+     *
+     * @param moves        The number of moves.
+     * @param nodes        The number of positions visited by all moves.
+     * @param cacheHits    The number of transposition table hits of all moves.
+     * @param maxDepth     The deepest ply reached by any move.
+     * @param p50Micros    The median wall time of a move.
+     * @param p99Micros    The 99th percentile of the wall time of a move.
+     * @param maxMicros    The longest wall time of a move.
+     * @param bytesPerMove The mean number of bytes allocated per move, where the JVM could measure it.
+     */
+    public record Statistics(long moves, long nodes, long cacheHits, long maxDepth,
+                             long p50Micros, long p99Micros, long maxMicros, long bytesPerMove) {
+    }
+
+    private static final class EngineStatistics {
+
+        private final LongAdder nodes = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+        private final LongAccumulator maxDepth = new LongAccumulator(Long::max, 0);
+        private final Histogram wallMicros = new Histogram();
+        private final Histogram allocatedBytes = new Histogram();
+
+        private void record(Probe probe, long wallNanos, long bytes) {
+            nodes.add(probe.nodes);
+            cacheHits.add(probe.cacheHits);
+            maxDepth.accumulate(probe.maxDepth);
+            wallMicros.record(wallNanos / 1000);
+            if (bytes >= 0) allocatedBytes.record(bytes);
+        }
+
+        private Statistics snapshot() {
+            return new Statistics(wallMicros.getCount(), nodes.sum(), cacheHits.sum(), maxDepth.get(),
+                    wallMicros.getPercentile(0.5), wallMicros.getPercentile(0.99), wallMicros.getMax(),
+                    allocatedBytes.getMean());
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+package lls.tictactoe.instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JDK Flight Recorder event for every move chosen by an engine. Its duration is the wall time of the move.
+ */
+@Name("lls.tictactoe.Move")
+@Label("Engine Move")
+@Category("TicTacToe")
+@Description("A move chosen by one of the engines")
+@StackTrace(false)
+final class MoveEvent extends Event {
+
+    @Label("Engine")
+    String engine;
+
+    @Label("Move")
+    int move;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Max Depth")
+    int maxDepth;
+
+    @Label("Cache Hits")
+    long cacheHits;
+
+    @Label("Allocated")
+    @Description("Bytes allocated by the thread during the move, or -1 if the JVM cannot measure it")
+    @DataAmount
+    long allocatedBytes;
+
+}
@@ -0,0 +1,103 @@
+package lls.tictactoe.server;
+
+import lls.tictactoe.Tile;
+import lls.tictactoe.engine.Bitboard;
+import lls.tictactoe.engine.Difficulty;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * One game against the AI, hosted by a {@link SessionManager}.
+ * <p>
+ * The whole state of the game fits into a single long, which is only ever replaced with a compare-and-set:
+ * <ul>
+ *     <li>bits 0-8: the mask of X, bits 9-17: the mask of O;</li>
+ *     <li>bits 18-19: the difficulty, bit 20: the AI's side (0 for X, 1 for O);</li>
+ *     <li>bits 32-63: the time of the last access, in seconds since the start of the manager.</li>
+ * </ul>
+ * Moves on the same session are therefore serialized without any lock: of two concurrent moves, one wins the
+ * compare-and-set and the other one retries on the new position. The session object itself takes 32 bytes of heap;
+ * hosted in a {@link SessionManager}, together with its map node and boxed id, it takes about 100 bytes (as
+ * measured by {@link SessionLoad}).
+ */
+public final class GameSession {
+
+    private static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(GameSession.class, "state", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+    private final long id;
+    private volatile long state;
+
+    GameSession(long id, long state) {
+        this.id = id;
+        this.state = state;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    long getState() {
+        return state;
+    }
+
+    boolean compareAndSet(long expected, long state) {
+        return STATE.compareAndSet(this, expected, state);
+    }
+
+    static long pack(int xMask, int oMask, Difficulty difficulty, Tile.State aiSide, int lastAccess) {
+        return xMask
+                | (long) oMask << 9
+                | (long) difficulty.ordinal() << 18
+                | (aiSide == Tile.State.O ? 1L : 0L) << 20
+                | (long) lastAccess << 32;
+    }
+
+    static int xMask(long state) {
+        return (int) state & Bitboard.FULL;
+    }
+
+    static int oMask(long state) {
+        return (int) (state >>> 9) & Bitboard.FULL;
+    }
+
+    static Difficulty difficulty(long state) {
+        return DIFFICULTIES[(int) (state >>> 18) & 0x3];
+    }
+
+    static Tile.State aiSide(long state) {
+        return (state >>> 20 & 1) == 0 ? Tile.State.X : Tile.State.O;
+    }
+
+    static int lastAccess(long state) {
+        return (int) (state >>> 32);
+    }
+
+    static long touch(long state, int lastAccess) {
+        return (state & 0xFFFF_FFFFL) | (long) lastAccess << 32;
+    }
+
+    /**
+     * @return The winner, or Tile.State.NONE if nobody has won (yet).
+     */
+    static Tile.State winner(long state) {
+        if (Bitboard.isWin(xMask(state))) return Tile.State.X;
+        if (Bitboard.isWin(oMask(state))) return Tile.State.O;
+        return Tile.State.NONE;
+    }
+
+    static boolean isOver(long state) {
+        return winner(state) != Tile.State.NONE || Bitboard.isFull(xMask(state), oMask(state));
+    }
+
+}
@@ -0,0 +1,254 @@
+package lls.tictactoe.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lls.tictactoe.Tile;
+import lls.tictactoe.engine.Difficulty;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A local HTTP service which lets other processes use the engines without starting JavaFX.
+ * <p>
+ * Every request is handled on its own virtual thread, so thousands of concurrent requests only cost memory, and
+ * a slow client never holds up the others. The service offers these endpoints:
+ * <ul>
+ *     <li>{@code GET /move?board=X...O....&difficulty=unbeatable&side=X} answers with the chosen move and the value
+ *     of that move, e.g. {@code {"move":2,"value":0}}. See {@link lls.tictactoe.engine.Notation} for the board
+ *     encoding. Invalid requests are answered with status 400 and an error message, any other failure with status
+ *     500.</li>
+ *     <li>{@code POST /sessions?difficulty=medium&side=X} starts a game in which the caller plays the given side, see
+ *     {@link SessionManager}. {@code POST /sessions/{id}?cell=4} plays a move and the AI's answer,
+ *     {@code GET /sessions/{id}} returns the game and {@code DELETE /sessions/{id}} ends it. Every one answers with the
+ *     game, e.g. {@code {"id":1,"board":"X...O....","aiMove":4,"winner":"NONE","over":false}}. Unknown (or evicted)
+ *     sessions are answered with status 404, and status 503 means that there are too many sessions. Any other
+ *     failure is answered with status 500.</li>
+ *     <li>{@code GET /metrics} answers with the request counts and latencies, see {@link RequestMetrics}.</li>
+ * </ul>
+ */
+public final class MoveServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final MoveService service = new MoveService();
+    private final RequestMetrics metrics = new RequestMetrics();
+    private final SessionManager sessions;
+
+    /**
+     * Creates a server, which does not accept requests until it is started. It holds up to 100000 sessions, which
+     * are evicted after 10 minutes without a request.
+     *
+     * @param address The address to bind to, port 0 picks a free port.
+     * @param backlog The maximum number of connections waiting to be accepted.
+     * @throws IOException if the address cannot be bound.
+     */
+    public MoveServer(InetSocketAddress address, int backlog) throws IOException {
+        this(address, backlog, new SessionManager(100_000, Duration.ofMinutes(10)));
+    }
+
+    /**
+     * Creates a server, which does not accept requests until it is started.
+     *
+     * @param address  The address to bind to, port 0 picks a free port.
+     * @param backlog  The maximum number of connections waiting to be accepted.
+     * @param sessions The sessions of the server, which are closed with the server.
+     * @throws IOException if the address cannot be bound.
+     */
+    public MoveServer(InetSocketAddress address, int backlog, SessionManager sessions) throws IOException {
+        this.sessions = sessions;
+        server = HttpServer.create(address, backlog);
+        server.setExecutor(executor);
+        server.createContext("/move", this::handleMove);
+        server.createContext("/sessions", this::handleSessions);
+        server.createContext("/metrics", this::handleMetrics);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, and waits for the requests which are being handled.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.close();
+        sessions.close();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    public RequestMetrics getMetrics() {
+        return metrics;
+    }
+
+    public SessionManager getSessions() {
+        return sessions;
+    }
+
+    private void handleMove(HttpExchange exchange) throws IOException {
+        long startTime = metrics.started();
+        boolean successful = false;
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                send(exchange, 405, error("Only GET is supported"));
+                return;
+            }
+            MoveService.Result result;
+            try {
+                Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+                result = service.chooseMove(
+                        require(query, "board"),
+                        difficulty(require(query, "difficulty")),
+                        side(require(query, "side")));
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, error(e.getMessage()));
+                return;
+            } catch (RuntimeException e) {
+                send(exchange, 500, error(String.valueOf(e)));
+                return;
+            }
+            send(exchange, 200, "{\"move\":" + result.move() + ",\"value\":" + result.value() + "}");
+            successful = true;
+        } finally {
+            metrics.finished(startTime, successful);
+        }
+    }
+
+    private void handleSessions(HttpExchange exchange) throws IOException {
+        long startTime = metrics.started();
+        boolean successful = false;
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath().substring("/sessions".length());
+            SessionManager.Snapshot snapshot;
+            try {
+                Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+                if (path.isEmpty() || path.equals("/")) {
+                    if (!method.equals("POST")) {
+                        send(exchange, 405, error("Only POST is supported"));
+                        return;
+                    }
+                    snapshot = sessions.create(difficulty(require(query, "difficulty")), side(require(query, "side")));
+                } else {
+                    long id = sessionId(path.substring(1));
+                    switch (method) {
+                        case "GET" -> snapshot = sessions.get(id);
+                        case "POST" -> snapshot = sessions.play(id, cell(require(query, "cell")));
+                        case "DELETE" -> {
+                            snapshot = sessions.get(id);
+                            sessions.remove(id);
+                        }
+                        default -> {
+                            send(exchange, 405, error("Only GET, POST and DELETE are supported"));
+                            return;
+                        }
+                    }
+                }
+            } catch (NoSuchElementException e) {
+                send(exchange, 404, error(e.getMessage()));
+                return;
+            } catch (SessionLimitException e) {
+                send(exchange, 503, error(e.getMessage()));
+                return;
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, error(e.getMessage()));
+                return;
+            } catch (RuntimeException e) {
+                send(exchange, 500, error(String.valueOf(e)));
+                return;
+            }
+            send(exchange, 200, snapshot.toJson());
+            successful = true;
+        } finally {
+            metrics.finished(startTime, successful);
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String json = metrics.toJson();
+            send(exchange, 200, json.substring(0, json.length() - 1)
+                    + ",\"sessions\":" + sessions.size()
+                    + ",\"sessionMoves\":" + sessions.getMoves()
+                    + ",\"evictions\":" + sessions.getEvictions() + "}");
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) return query;
+        for (String parameter : rawQuery.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator < 0) continue;
+            query.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                    URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static String require(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null) throw new IllegalArgumentException("Missing parameter: " + name);
+        return value;
+    }
+
+    private static Difficulty difficulty(String difficulty) {
+        for (Difficulty candidate : Difficulty.values()) {
+            if (candidate.name().equalsIgnoreCase(difficulty)) return candidate;
+        }
+        throw new IllegalArgumentException("Invalid difficulty: " + difficulty);
+    }
+
+    private static long sessionId(String id) {
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            throw new NoSuchElementException("No session " + id);
+        }
+    }
+
+    private static int cell(String cell) {
+        try {
+            return Integer.parseInt(cell);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cell: " + cell);
+        }
+    }
+
+    private static Tile.State side(String side) {
+        return switch (side.toUpperCase(Locale.ROOT)) {
+            case "X" -> Tile.State.X;
+            case "O" -> Tile.State.O;
+            default -> throw new IllegalArgumentException("Invalid side: " + side);
+        };
+    }
+
+    private static String error(String message) {
+        return "{\"error\":\"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+    }
+
+}
@@ -0,0 +1,60 @@
+package lls.tictactoe.server;
+
+import lls.tictactoe.Tile;
+import lls.tictactoe.engine.Bitboard;
+import lls.tictactoe.engine.Difficulty;
+import lls.tictactoe.engine.MoveAnalysis;
+import lls.tictactoe.engine.Notation;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Chooses moves for encoded boards, independent of how the requests arrive.
+ * <p>
+ * The service is stateless and thread-safe. The engines only read shared tables, and every call uses the random
+ * generator of its own thread, so any number of requests can be served at the same time.
+ */
+public final class MoveService {
+
+    /**
+     * Chooses the move of a difficulty and evaluates it.
+     *
+     * @param board      The encoded board, see {@link Notation}.
+     * @param difficulty The difficulty which chooses the move.
+     * @param side       The side (X or O) to choose the move for, which must be the player to move.
+     * @return The chosen move and its game-theoretic value for the side.
+     * @throws IllegalArgumentException if the board is invalid, the game is already over or it is not the side's turn.
+     */
+    public Result chooseMove(String board, Difficulty difficulty, Tile.State side) {
+        List<Tile> tiles = Notation.parse(board);
+        int xMask = Bitboard.mask(tiles, Tile.State.X);
+        int oMask = Bitboard.mask(tiles, Tile.State.O);
+
+        Tile.State toMove = Bitboard.playerToMove(xMask, oMask);
+        if (side != toMove) {
+            throw new IllegalArgumentException("It is " + toMove + "'s turn, not " + side + "'s");
+        }
+        if (Bitboard.isWin(xMask) || Bitboard.isWin(oMask) || Bitboard.isFull(xMask, oMask)) {
+            throw new IllegalArgumentException("The game is already over");
+        }
+
+        int ownMask = side == Tile.State.X ? xMask : oMask;
+        int opponentMask = side == Tile.State.X ? oMask : xMask;
+        int move = difficulty.chooseMove(tiles, side, ThreadLocalRandom.current());
+        // The analysis looks the move up in the solved table, and falls back to the Minimax search without it
+        return new Result(move, MoveAnalysis.of(ownMask, opponentMask).getValue(move));
+    }
+
+    /**
+     * The answer to a move request.
+     *
+     * @param move  The position of the chosen tile.
+     * @param value The value of the chosen move for the side to move (positive for a win, 0 for a draw, negative for
+     *              a loss), assuming perfect play from both sides after it. A weaker difficulty may choose a move
+     *              which is worth less than the position.
+     */
+    public record Result(int move, int value) {
+    }
+
+}
@@ -0,0 +1,60 @@
+package lls.tictactoe.server;
+
+import lls.tictactoe.instrumentation.Histogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts requests and records their latencies, without any locking on the request path.
+ * <p>
+ * Latencies are kept in a {@link Histogram}, so percentiles are reported as the upper bound of the power of two
+ * microseconds they fall into, i.e. at most twice the real value.
+ */
+public final class RequestMetrics {
+
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final Histogram latencyMicros = new Histogram();
+
+    /**
+     * Records the start of a request.
+     *
+     * @return The start time, to be passed to {@link #finished(long, boolean)}.
+     */
+    public long started() {
+        inFlight.increment();
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the end of a request.
+     *
+     * @param startTime  The time returned by {@link #started()}.
+     * @param successful false if the request was answered with an error.
+     */
+    public void finished(long startTime, boolean successful) {
+        long nanos = System.nanoTime() - startTime;
+        inFlight.decrement();
+        if (!successful) failures.increment();
+        latencyMicros.record(nanos / 1000);
+    }
+
+    /**
+     * Takes a snapshot of the metrics. The counters are read one after another, so a snapshot taken under load is
+     * only approximately consistent.
+     *
+     * @return The metrics as a JSON object.
+     */
+    public String toJson() {
+        return "{\"requests\":" + latencyMicros.getCount()
+                + ",\"failures\":" + failures.sum()
+                + ",\"inFlight\":" + inFlight.sum()
+                + ",\"meanMicros\":" + latencyMicros.getMean()
+                + ",\"p50Micros\":" + latencyMicros.getPercentile(0.50)
+                + ",\"p99Micros\":" + latencyMicros.getPercentile(0.99)
+                + ",\"p999Micros\":" + latencyMicros.getPercentile(0.999)
+                + ",\"maxMicros\":" + latencyMicros.getMax()
+                + "}";
+    }
+
+}
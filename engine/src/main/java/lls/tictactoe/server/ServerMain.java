@@ -0,0 +1,47 @@
+package lls.tictactoe.server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+/**
+ * Starts the {@link MoveServer} instead of the game, for callers which only need the engines.
+ * <p>
+ * Usage: {@code ServerMain [--port n] [--backlog n] [--sessions n] [--idle seconds]}, where {@code --sessions} bounds
+ * the number of concurrent games and {@code --idle} is the time after which an unused game is evicted. The server only
+ * listens on the loopback address and runs until the process is stopped.
+ */
+public final class ServerMain {
+
+    private ServerMain() {
+    }
+
+    static void main(String[] args) throws IOException {
+        int port = 8080;
+        int backlog = 4096;
+        int maxSessions = 100_000;
+        int idleSeconds = 600;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[i + 1]);
+                case "--backlog" -> backlog = Integer.parseInt(args[i + 1]);
+                case "--sessions" -> maxSessions = Integer.parseInt(args[i + 1]);
+                case "--idle" -> idleSeconds = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        // Responses are written in two parts, which Nagle's algorithm would delay on kept-alive connections
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+
+        SessionManager sessions = new SessionManager(maxSessions, Duration.ofSeconds(idleSeconds));
+        MoveServer server = new MoveServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), backlog, sessions);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        server.start();
+        System.out.println("Listening on http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort());
+    }
+
+}
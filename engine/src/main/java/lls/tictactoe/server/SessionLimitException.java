@@ -0,0 +1,21 @@
+package lls.tictactoe.server;
+
+import java.io.Serial;
+
+/**
+ * Thrown by {@link SessionManager#create} when the manager already holds the maximum number of sessions.
+ * The request may succeed later, once sessions have ended or been evicted.
+ */
+public final class SessionLimitException extends IllegalStateException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param maxSessions The maximum number of sessions.
+     */
+    public SessionLimitException(int maxSessions) {
+        super("Too many sessions: " + maxSessions);
+    }
+
+}
@@ -0,0 +1,242 @@
+package lls.tictactoe.server;
+
+import lls.tictactoe.Tile;
+import lls.tictactoe.engine.Difficulty;
+import lls.tictactoe.engine.Notation;
+import lls.tictactoe.instrumentation.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A load generator for the {@link SessionManager}, which measures the memory per session and the move throughput.
+ * <p>
+ * Usage: {@code SessionLoad [--clients n] [--seconds n] [--idle n] [--url http://host:port]}.
+ * First {@code --idle} sessions are created and kept open, to measure the heap they use. Then every client, on its
+ * own virtual thread, plays random games against a random difficulty for the given time, and the number of games,
+ * moves and the move latencies are printed. With {@code --url} the clients play against a running
+ * {@link ServerMain} instead of an in-process manager, which also includes the cost of HTTP.
+ */
+public final class SessionLoad {
+
+    private final LongAdder games = new LongAdder();
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final Histogram latencyMicros = new Histogram();
+
+    private SessionLoad() {
+    }
+
+    static void main(String[] args) throws InterruptedException, IOException {
+        int clients = 1000;
+        int seconds = 10;
+        int idle = 100_000;
+        String url = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--clients" -> clients = Integer.parseInt(args[i + 1]);
+                case "--seconds" -> seconds = Integer.parseInt(args[i + 1]);
+                case "--idle" -> idle = Integer.parseInt(args[i + 1]);
+                case "--url" -> url = args[i + 1];
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        Sessions sessions;
+        SessionManager manager = null;
+        HttpClient client = null;
+        if (url == null) {
+            manager = new SessionManager(idle + clients, Duration.ofMinutes(10));
+            sessions = new LocalSessions(manager);
+        } else {
+            client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+            sessions = new RemoteSessions(client, url);
+        }
+
+        try {
+            SessionLoad load = new SessionLoad();
+            load.measureIdle(sessions, manager, idle);
+            load.play(sessions, clients, seconds);
+        } finally {
+            if (manager != null) manager.close();
+            if (client != null) client.close();
+        }
+    }
+
+    /**
+     * Opens sessions which are never played, and prints the heap they use if they are in-process.
+     */
+    private void measureIdle(Sessions sessions, SessionManager manager, int count) throws IOException {
+        if (count == 0) return;
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            sessions.create(Difficulty.EASY, Tile.State.X);
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Created %d idle sessions in %.2f s%n", count, elapsed);
+        if (manager != null) {
+            System.gc();
+            long after = runtime.totalMemory() - runtime.freeMemory();
+            System.out.printf("Heap per session: ~%d bytes (%d sessions)%n", (after - before) / count, manager.size());
+        }
+    }
+
+    private void play(Sessions sessions, int clients, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            playGame(sessions);
+                        } catch (Exception e) {
+                            failures.increment();
+                        }
+                    }
+                    return null;
+                });
+            }
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(1000);
+                System.out.printf("%d games, %d moves%n", games.sum(), moves.sum());
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d clients: %.0f games/s, %.0f moves/s, %d failures%n",
+                clients, games.sum() / elapsed, moves.sum() / elapsed, failures.sum());
+        System.out.printf("Move latency: p50 %d us, p99 %d us, p99.9 %d us, max %d us%n",
+                latencyMicros.getPercentile(0.50), latencyMicros.getPercentile(0.99),
+                latencyMicros.getPercentile(0.999), latencyMicros.getMax());
+    }
+
+    /**
+     * Plays one game with random moves on a random side against a random difficulty.
+     */
+    private void playGame(Sessions sessions) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Difficulty[] difficulties = Difficulty.values();
+        Tile.State side = random.nextBoolean() ? Tile.State.X : Tile.State.O;
+        Game game = sessions.create(difficulties[random.nextInt(difficulties.length)], side);
+        try {
+            while (!game.over()) {
+                List<Integer> free = new ArrayList<>();
+                for (int position = 0; position < game.board().length(); position++) {
+                    if (game.board().charAt(position) == Notation.EMPTY) free.add(position);
+                }
+                long start = System.nanoTime();
+                game = sessions.play(game.id(), free.get(random.nextInt(free.size())));
+                latencyMicros.record((System.nanoTime() - start) / 1000);
+                moves.increment();
+            }
+            games.increment();
+        } finally {
+            sessions.remove(game.id());
+        }
+    }
+
+    /**
+     * The state of a game as seen by a client.
+     */
+    private record Game(long id, String board, boolean over) {
+    }
+
+    /**
+     * The manager the clients play against.
+     */
+    private interface Sessions {
+
+        Game create(Difficulty difficulty, Tile.State side) throws IOException;
+
+        Game play(long id, int cell) throws IOException;
+
+        void remove(long id) throws IOException;
+    }
+
+    private record LocalSessions(SessionManager manager) implements Sessions {
+
+        @Override
+        public Game create(Difficulty difficulty, Tile.State side) {
+            return game(manager.create(difficulty, side));
+        }
+
+        @Override
+        public Game play(long id, int cell) {
+            return game(manager.play(id, cell));
+        }
+
+        @Override
+        public void remove(long id) {
+            manager.remove(id);
+        }
+
+        private static Game game(SessionManager.Snapshot snapshot) {
+            return new Game(snapshot.id(), snapshot.board(), snapshot.isOver());
+        }
+    }
+
+    private record RemoteSessions(HttpClient client, String url) implements Sessions {
+
+        @Override
+        public Game create(Difficulty difficulty, Tile.State side) throws IOException {
+            return game(send("POST", "/sessions?difficulty=" + difficulty + "&side=" + side));
+        }
+
+        @Override
+        public Game play(long id, int cell) throws IOException {
+            return game(send("POST", "/sessions/" + id + "?cell=" + cell));
+        }
+
+        @Override
+        public void remove(long id) throws IOException {
+            send("DELETE", "/sessions/" + id);
+        }
+
+        private String send(String method, String path) throws IOException {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url + path))
+                    .method(method, HttpRequest.BodyPublishers.noBody())
+                    .build();
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    throw new IOException("Status " + response.statusCode() + ": " + response.body());
+                }
+                return response.body();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+        /**
+         * Reads the fields the clients need from a response of the {@link MoveServer}.
+         */
+        private static Game game(String json) {
+            long id = Long.parseLong(field(json, "id"));
+            String board = field(json, "board");
+            return new Game(id, board.substring(1, board.length() - 1), Boolean.parseBoolean(field(json, "over")));
+        }
+
+        private static String field(String json, String name) {
+            int start = json.indexOf("\"" + name + "\":") + name.length() + 3;
+            int end = start;
+            while (end < json.length() && json.charAt(end) != ',' && json.charAt(end) != '}') end++;
+            return json.substring(start, end);
+        }
+    }
+
+}
@@ -0,0 +1,265 @@
+package lls.tictactoe.server;
+
+import lls.tictactoe.Tile;
+import lls.tictactoe.engine.Bitboard;
+import lls.tictactoe.engine.Difficulty;
+import lls.tictactoe.engine.Notation;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hosts many games against the AI in one process, without any UI.
+ * <p>
+ * Sessions are kept in a {@link ConcurrentHashMap}, so creating and finding sessions never takes a global lock,
+ * and every session serializes its own moves, see {@link GameSession}. The number of sessions is bounded:
+ * a background task regularly evicts the sessions which have not been used for the idle timeout, and new sessions
+ * are refused while the manager is full. A new session reserves its slot before it is created, so concurrent
+ * creations never exceed the bound.
+ */
+public final class SessionManager implements AutoCloseable {
+
+    private final ConcurrentMap<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final int maxSessions;
+    private final int idleSeconds;
+    private final long startTime = System.nanoTime();
+    private final ScheduledExecutorService evictor;
+
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a manager and starts evicting idle sessions.
+     *
+     * @param maxSessions The maximum number of sessions.
+     * @param idleTimeout The time after which an unused session is evicted, at least one second.
+     */
+    public SessionManager(int maxSessions, Duration idleTimeout) {
+        this.maxSessions = maxSessions;
+        this.idleSeconds = (int) Math.max(1, idleTimeout.toSeconds());
+        this.evictor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("session-evictor").factory());
+        long period = Math.max(1, idleSeconds / 4);
+        evictor.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Starts a new game. If the AI plays X, it makes the first move right away.
+     *
+     * @param difficulty The difficulty of the AI.
+     * @param humanSide  The side (X or O) of the human player.
+     * @return The state of the new game.
+     * @throws SessionLimitException if the manager already holds the maximum number of sessions.
+     */
+    public Snapshot create(Difficulty difficulty, Tile.State humanSide) {
+        if (reserved.getAndIncrement() >= maxSessions) {
+            reserved.decrementAndGet();
+            throw new SessionLimitException(maxSessions);
+        }
+        try {
+            return start(difficulty, humanSide);
+        } catch (RuntimeException e) {
+            // The session was never added, so its slot is free again
+            reserved.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private Snapshot start(Difficulty difficulty, Tile.State humanSide) {
+        Tile.State aiSide = humanSide == Tile.State.X ? Tile.State.O : Tile.State.X;
+        long state = GameSession.pack(0, 0, difficulty, aiSide, now());
+        int aiMove = -1;
+        if (aiSide == Tile.State.X) {
+            aiMove = difficulty.chooseMove(Bitboard.tiles(0, 0), aiSide, ThreadLocalRandom.current());
+            state = GameSession.pack(Bitboard.bit(aiMove), 0, difficulty, aiSide, now());
+        }
+        GameSession session = new GameSession(nextId.getAndIncrement(), state);
+        sessions.put(session.getId(), session);
+        return new Snapshot(session.getId(), state, aiMove);
+    }
+
+    /**
+     * Plays the human's move and the AI's answer.
+     *
+     * @param id   The session.
+     * @param cell The position of the human's move.
+     * @return The state of the game after both moves.
+     * @throws NoSuchElementException   if there is no such session, e.g. because it was evicted.
+     * @throws IllegalArgumentException if the game is over or the cell is not free.
+     */
+    public Snapshot play(long id, int cell) {
+        GameSession session = find(id);
+        if (cell < 0 || cell >= Bitboard.CELLS) throw new IllegalArgumentException("Invalid cell: " + cell);
+        for (; ; ) {
+            long state = session.getState();
+            if (GameSession.isOver(state)) throw new IllegalArgumentException("The game is over");
+            int xMask = GameSession.xMask(state);
+            int oMask = GameSession.oMask(state);
+            if (((xMask | oMask) & Bitboard.bit(cell)) != 0) {
+                throw new IllegalArgumentException("Cell " + cell + " is not free");
+            }
+
+            Difficulty difficulty = GameSession.difficulty(state);
+            Tile.State aiSide = GameSession.aiSide(state);
+            if (aiSide == Tile.State.X) {
+                oMask |= Bitboard.bit(cell);
+            } else {
+                xMask |= Bitboard.bit(cell);
+            }
+
+            // The AI answers, unless the human's move ended the game
+            int aiMove = -1;
+            long next = GameSession.pack(xMask, oMask, difficulty, aiSide, now());
+            if (!GameSession.isOver(next)) {
+                aiMove = difficulty.chooseMove(Bitboard.tiles(xMask, oMask), aiSide, ThreadLocalRandom.current());
+                if (aiSide == Tile.State.X) {
+                    xMask |= Bitboard.bit(aiMove);
+                } else {
+                    oMask |= Bitboard.bit(aiMove);
+                }
+                next = GameSession.pack(xMask, oMask, difficulty, aiSide, now());
+            }
+
+            // Another move on the same session may have come first, in which case the move is tried again
+            if (session.compareAndSet(state, next)) {
+                moves.increment();
+                return new Snapshot(id, next, aiMove);
+            }
+        }
+    }
+
+    /**
+     * Looks up the state of a game, which also counts as an access.
+     *
+     * @param id The session.
+     * @return The state of the game.
+     * @throws NoSuchElementException if there is no such session.
+     */
+    public Snapshot get(long id) {
+        GameSession session = find(id);
+        long state;
+        long touched;
+        do {
+            state = session.getState();
+            touched = GameSession.touch(state, now());
+        } while (state != touched && !session.compareAndSet(state, touched));
+        return new Snapshot(id, touched, -1);
+    }
+
+    /**
+     * Ends a session.
+     *
+     * @param id The session.
+     * @return true if the session existed, false otherwise.
+     */
+    public boolean remove(long id) {
+        if (sessions.remove(id) == null) return false;
+        reserved.decrementAndGet();
+        return true;
+    }
+
+    /**
+     * Evicts every session which has not been used for the idle timeout. This runs regularly in the background,
+     * but can also be called directly. A session which is used while it is evicted may still be evicted.
+     *
+     * @return The number of evicted sessions.
+     */
+    public int evictIdle() {
+        int deadline = now() - idleSeconds;
+        int evicted = 0;
+        for (Map.Entry<Long, GameSession> entry : sessions.entrySet()) {
+            GameSession session = entry.getValue();
+            if (GameSession.lastAccess(session.getState()) >= deadline) continue;
+            // The session may have been removed in the meantime, its slot is then already released
+            if (sessions.remove(entry.getKey(), session)) {
+                reserved.decrementAndGet();
+                evicted++;
+            }
+        }
+        evictions.add(evicted);
+        return evicted;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * @return The number of moves played in all sessions.
+     */
+    public long getMoves() {
+        return moves.sum();
+    }
+
+    /**
+     * @return The number of sessions evicted for being idle.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        sessions.clear();
+        reserved.set(0);
+    }
+
+    private GameSession find(long id) {
+        GameSession session = sessions.get(id);
+        if (session == null) throw new NoSuchElementException("No session " + id);
+        return session;
+    }
+
+    /**
+     * @return The seconds since the start of the manager.
+     */
+    private int now() {
+        return (int) ((System.nanoTime() - startTime) / 1_000_000_000L);
+    }
+
+    /**
+     * The state of a game at one point in time.
+     *
+     * @param id     The session.
+     * @param state  The packed state, see {@link GameSession}.
+     * @param aiMove The AI's move which led to this state, or -1 if the AI did not move.
+     */
+    public record Snapshot(long id, long state, int aiMove) {
+
+        /**
+         * @return The board, see {@link Notation}.
+         */
+        public String board() {
+            return Notation.format(GameSession.xMask(state), GameSession.oMask(state));
+        }
+
+        /**
+         * @return The winner, or Tile.State.NONE if nobody has won (yet).
+         */
+        public Tile.State winner() {
+            return GameSession.winner(state);
+        }
+
+        public boolean isOver() {
+            return GameSession.isOver(state);
+        }
+
+        public String toJson() {
+            return "{\"id\":" + id + ",\"board\":\"" + board() + "\",\"aiMove\":" + aiMove
+                    + ",\"winner\":\"" + winner() + "\",\"over\":" + isOver() + "}";
+        }
+    }
+
+}
@@ -0,0 +1,219 @@
+package lls.tictactoe.simulation;
+
+import lls.tictactoe.Tile;
+import lls.tictactoe.engine.Bitboard;
+import lls.tictactoe.engine.Difficulty;
+import lls.tictactoe.history.GameRecord;
+import lls.tictactoe.history.GameRepository;
+import lls.tictactoe.instrumentation.EngineMetrics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays engine against engine without any UI, in every pairing of difficulties and on both sides.
+ * <p>
+ * Usage: {@code SelfPlay [--games n] [--threads n] [--seed n] [--record file]}, where {@code --games} is the number
+ * of games per pairing and {@code --record} appends every game to a {@link GameRepository} log.
+ * The games are split into fixed chunks, and every chunk gets its own {@link SplittableRandom} which is split off
+ * a seeded root in a fixed order. Workers therefore never share a random generator, and the same seed always
+ * produces the same results, no matter how many threads play the games.
+ * Progress is printed every second, the outcome of every pairing at the end, followed by the cost of the moves of
+ * every difficulty if {@link EngineMetrics} is enabled.
+ */
+public final class SelfPlay {
+
+    /**
+     * The number of games a worker plays in one go.
+     */
+    private static final int CHUNK_SIZE = 10_000;
+
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+    private final long gamesPerPairing;
+    private final int threads;
+    private final long seed;
+
+    /**
+     * The repository which stores every game, or null if the games are not recorded.
+     */
+    private final GameRepository repository;
+
+    /**
+     * For every pairing (X difficulty * 3 + O difficulty), the number of X wins, O wins and draws.
+     */
+    private final LongAdder[][] outcomes = new LongAdder[DIFFICULTIES.length * DIFFICULTIES.length][3];
+    private final LongAdder gamesPlayed = new LongAdder();
+
+    /**
+     * @param gamesPerPairing The number of games to play for every pairing of difficulties.
+     * @param threads         The number of worker threads.
+     * @param seed            The seed of the root random generator.
+     * @param repository      The repository to store every game in, or null to only count the outcomes.
+     */
+    public SelfPlay(long gamesPerPairing, int threads, long seed, GameRepository repository) {
+        this.gamesPerPairing = gamesPerPairing;
+        this.threads = threads;
+        this.seed = seed;
+        this.repository = repository;
+        for (LongAdder[] pairing : outcomes) {
+            for (int i = 0; i < pairing.length; i++) {
+                pairing[i] = new LongAdder();
+            }
+        }
+    }
+
+    static void main(String[] args) throws InterruptedException, IOException {
+        long games = 100_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 42;
+        Path record = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--games" -> games = Long.parseLong(args[i + 1]);
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                case "--record" -> record = Path.of(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (record == null) {
+            new SelfPlay(games, threads, seed, null).run();
+        } else {
+            try (GameRepository repository = GameRepository.open(record)) {
+                new SelfPlay(games, threads, seed, repository).run();
+            }
+        }
+    }
+
+    /**
+     * Plays all games, printing the progress while they are running and the outcomes at the end.
+     *
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the workers.
+     */
+    public void run() throws InterruptedException {
+        SplittableRandom root = new SplittableRandom(seed);
+        List<Callable<Void>> chunks = new ArrayList<>();
+        for (int pairing = 0; pairing < outcomes.length; pairing++) {
+            for (long start = 0; start < gamesPerPairing; start += CHUNK_SIZE) {
+                final int finalPairing = pairing;
+                final long size = Math.min(CHUNK_SIZE, gamesPerPairing - start);
+                final SplittableRandom random = root.split();
+                chunks.add(() -> {
+                    playChunk(finalPairing, size, random);
+                    return null;
+                });
+            }
+        }
+
+        long startTime = System.nanoTime();
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        reporter.scheduleAtFixedRate(() -> printProgress(startTime), 1, 1, TimeUnit.SECONDS);
+        try (ExecutorService workers = Executors.newFixedThreadPool(threads)) {
+            for (Future<Void> chunk : workers.invokeAll(chunks)) {
+                chunk.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A worker failed", e.getCause());
+        } finally {
+            reporter.shutdownNow();
+        }
+
+        printProgress(startTime);
+        printOutcomes();
+        if (EngineMetrics.isEnabled()) {
+            System.out.print(EngineMetrics.dump());
+        }
+    }
+
+    /**
+     * Plays a single game.
+     *
+     * @param x      The difficulty of X, who moves first.
+     * @param o      The difficulty of O.
+     * @param random The random generator of the calling worker.
+     * @return The finished game, including its winner (Tile.State.NONE for a draw).
+     */
+    public static GameRecord playGame(Difficulty x, Difficulty o, RandomGenerator random) {
+        List<Tile> tiles = new ArrayList<>(Bitboard.CELLS);
+        for (int i = 0; i < Bitboard.CELLS; i++) {
+            tiles.add(new Tile(i));
+        }
+
+        int[] moves = new int[Bitboard.CELLS];
+        int xMask = 0;
+        int oMask = 0;
+        for (int turn = 0; ; turn++) {
+            boolean xToMove = turn % 2 == 0;
+            Tile.State state = xToMove ? Tile.State.X : Tile.State.O;
+            int move = (xToMove ? x : o).chooseMove(tiles, state, random);
+            if (!tiles.get(move).changeState(state)) {
+                throw new IllegalStateException((xToMove ? x : o) + " chose an occupied tile: " + move);
+            }
+            moves[turn] = move;
+            Tile.State winner = null;
+            if (xToMove) {
+                xMask |= Bitboard.bit(move);
+                if (Bitboard.isWin(xMask)) winner = Tile.State.X;
+            } else {
+                oMask |= Bitboard.bit(move);
+                if (Bitboard.isWin(oMask)) winner = Tile.State.O;
+            }
+            if (winner == null && Bitboard.isFull(xMask, oMask)) winner = Tile.State.NONE;
+            if (winner != null) {
+                return new GameRecord(Instant.now(), x, o, winner, Arrays.copyOf(moves, turn + 1));
+            }
+        }
+    }
+
+    private void playChunk(int pairing, long games, SplittableRandom random) throws IOException {
+        Difficulty x = DIFFICULTIES[pairing / DIFFICULTIES.length];
+        Difficulty o = DIFFICULTIES[pairing % DIFFICULTIES.length];
+        long xWins = 0;
+        long oWins = 0;
+        for (long i = 0; i < games; i++) {
+            GameRecord game = playGame(x, o, random);
+            if (repository != null) repository.save(game);
+            switch (game.winner()) {
+                case X -> xWins++;
+                case O -> oWins++;
+                case NONE -> {
+                }
+            }
+            // Publish the progress now and then, not after every single game
+            if ((i + 1) % 1000 == 0) gamesPlayed.add(1000);
+        }
+        gamesPlayed.add(games % 1000);
+        outcomes[pairing][0].add(xWins);
+        outcomes[pairing][1].add(oWins);
+        outcomes[pairing][2].add(games - xWins - oWins);
+    }
+
+    private void printProgress(long startTime) {
+        long games = gamesPlayed.sum();
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        System.out.printf("%,d / %,d games, %,.0f games/sec%n", games, gamesPerPairing * outcomes.length, games / seconds);
+    }
+
+    private void printOutcomes() {
+        System.out.printf("%-10s %-10s %8s %8s %8s%n", "X", "O", "X won", "O won", "Draw");
+        for (int pairing = 0; pairing < outcomes.length; pairing++) {
+            long total = outcomes[pairing][0].sum() + outcomes[pairing][1].sum() + outcomes[pairing][2].sum();
+            System.out.printf("%-10s %-10s %7.2f%% %7.2f%% %7.2f%%%n",
+                    DIFFICULTIES[pairing / DIFFICULTIES.length],
+                    DIFFICULTIES[pairing % DIFFICULTIES.length],
+                    100.0 * outcomes[pairing][0].sum() / total,
+                    100.0 * outcomes[pairing][1].sum() / total,
+                    100.0 * outcomes[pairing][2].sum() / total);
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package lls.tictactoe.strategy;
+
+import lls.tictactoe.engine.Board;
+import lls.tictactoe.engine.ConcurrentTranspositionTable;
+import lls.tictactoe.engine.DeepeningSearch;
+import lls.tictactoe.engine.SearchLimits;
+import lls.tictactoe.instrumentation.EngineMetrics;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Plays with a {@link DeepeningSearch} of one second per move, on any board.
+ * <p>
+ * The registered instance splits the root moves across as many threads as the system property
+ * {@code lls.tictactoe.threads} asks for, see {@link SearchPool}.
+ */
+public final class DeepeningStrategy implements MoveStrategy {
+
+    private final DeepeningSearch search;
+
+    public DeepeningStrategy() {
+        this(SearchPool.get());
+    }
+
+    /**
+     * @param pool The pool to split the root moves across, or null to search sequentially.
+     */
+    public DeepeningStrategy(ForkJoinPool pool) {
+        this.search = new DeepeningSearch(SearchLimits.ofTime(Duration.ofSeconds(1)), pool,
+                new ConcurrentTranspositionTable());
+    }
+
+    @Override
+    public String getName() {
+        return "deepening";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Alpha-beta";
+    }
+
+    @Override
+    public int chooseMove(Board board, byte player) {
+        EngineMetrics.Probe probe = EngineMetrics.begin();
+        int move = search.search(board, player).move();
+        EngineMetrics.end(probe, getName(), move);
+        return move;
+    }
+
+    /**
+     * @return The reply stored in the transposition table by the last search.
+     */
+    @Override
+    public int expectMove(Board board, byte player) {
+        return search.getExpectedMove(board, player);
+    }
+
+}
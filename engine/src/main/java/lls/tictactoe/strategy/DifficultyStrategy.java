@@ -0,0 +1,130 @@
+package lls.tictactoe.strategy;
+
+import lls.tictactoe.Tile;
+import lls.tictactoe.engine.Bitboard;
+import lls.tictactoe.engine.Board;
+import lls.tictactoe.engine.Difficulty;
+import lls.tictactoe.engine.MonteCarloSearch;
+import lls.tictactoe.engine.SearchLimits;
+import lls.tictactoe.instrumentation.EngineMetrics;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A {@link Difficulty} as a strategy.
+ * <p>
+ * On the classic board the difficulty chooses the move itself. On larger boards a {@link MonteCarloSearch} plays
+ * instead, whose playout budget grows with the difficulty, on the threads of the {@link SearchPool}.
+ */
+public abstract sealed class DifficultyStrategy implements MoveStrategy
+        permits DifficultyStrategy.Easy, DifficultyStrategy.Medium, DifficultyStrategy.Unbeatable {
+
+    private final Difficulty difficulty;
+    private final String name;
+    private final String displayName;
+    private final SearchLimits limits;
+
+    /**
+     * The search for larger boards, created on first use, as its tree takes a few megabytes.
+     */
+    private volatile MonteCarloSearch search;
+
+    DifficultyStrategy(Difficulty difficulty, String displayName, SearchLimits limits) {
+        this.difficulty = difficulty;
+        this.name = difficulty.name().toLowerCase(Locale.ROOT);
+        this.displayName = displayName;
+        this.limits = limits;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public int chooseMove(Board board, byte player) {
+        if (!isClassic(board)) {
+            EngineMetrics.Probe probe = EngineMetrics.begin();
+            int move = getSearch().search(board, player).move();
+            EngineMetrics.end(probe, difficulty.name(), move);
+            return move;
+        }
+        int xMask = 0;
+        int oMask = 0;
+        for (int cell = 0; cell < Bitboard.CELLS; cell++) {
+            if (board.get(cell) == Board.X) xMask |= Bitboard.bit(cell);
+            if (board.get(cell) == Board.O) oMask |= Bitboard.bit(cell);
+        }
+        Tile.State state = player == Board.X ? Tile.State.X : Tile.State.O;
+        return difficulty.chooseMove(Bitboard.tiles(xMask, oMask), state, ThreadLocalRandom.current());
+    }
+
+    /**
+     * The classic board needs no state, but the search for larger boards owns a single tree, so the copy gets a
+     * search of its own, which is again only created on first use.
+     *
+     * @return A new strategy of the same difficulty.
+     */
+    @Override
+    public MoveStrategy fork() {
+        return switch (this) {
+            case Easy _ -> new Easy();
+            case Medium _ -> new Medium();
+            case Unbeatable _ -> new Unbeatable();
+        };
+    }
+
+    /**
+     * @return The difficulty which chooses the moves on the classic board.
+     */
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    private MonteCarloSearch getSearch() {
+        MonteCarloSearch search = this.search;
+        if (search == null) {
+            synchronized (this) {
+                search = this.search;
+                if (search == null) {
+                    search = new MonteCarloSearch(limits, SearchPool.get(), MonteCarloSearch.DEFAULT_CAPACITY);
+                    this.search = search;
+                }
+            }
+        }
+        return search;
+    }
+
+    private static boolean isClassic(Board board) {
+        return board.getWidth() == 3 && board.getHeight() == 3 && board.getK() == 3;
+    }
+
+    public static final class Easy extends DifficultyStrategy {
+
+        public Easy() {
+            super(Difficulty.EASY, "Easy", SearchLimits.ofNodes(500));
+        }
+    }
+
+    public static final class Medium extends DifficultyStrategy {
+
+        public Medium() {
+            super(Difficulty.MEDIUM, "Medium", SearchLimits.ofNodes(20_000));
+        }
+    }
+
+    public static final class Unbeatable extends DifficultyStrategy {
+
+        public Unbeatable() {
+            super(Difficulty.UNBEATABLE, "Unbeatable", SearchLimits.ofTime(Duration.ofSeconds(2)));
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+package lls.tictactoe.strategy;
+
+import lls.tictactoe.engine.Board;
+import lls.tictactoe.instrumentation.Histogram;
+
+/**
+ * Plays two strategies against each other, selected by name, to compare them side by side.
+ * <p>
+ * Usage: {@code Match --x name --o name [--games n] [--width n] [--height n] [--k n]}, by default 100 games on the
+ * classic board. {@code Match --list} prints the registered strategies instead, see {@link MoveStrategies}.
+ * The outcome of the games is printed at the end, along with the time every strategy took per move. With
+ * {@code -Dlls.tictactoe.threads=n} the searches run on n threads, see {@link SearchPool}.
+ */
+public final class Match {
+
+    private Match() {
+    }
+
+    static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--list")) {
+            for (MoveStrategy strategy : MoveStrategies.all()) {
+                System.out.printf("%-12s %s%n", strategy.getName(), strategy.getDisplayName());
+            }
+            return;
+        }
+
+        String x = null;
+        String o = null;
+        int games = 100;
+        int width = 3;
+        int height = 3;
+        int k = 3;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--x" -> x = args[i + 1];
+                case "--o" -> o = args[i + 1];
+                case "--games" -> games = Integer.parseInt(args[i + 1]);
+                case "--width" -> width = Integer.parseInt(args[i + 1]);
+                case "--height" -> height = Integer.parseInt(args[i + 1]);
+                case "--k" -> k = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (x == null || o == null) throw new IllegalArgumentException("Both --x and --o are required");
+
+        MoveStrategy[] players = {MoveStrategies.get(x), MoveStrategies.get(o)};
+        Board empty = new Board(width, height, k);
+        for (MoveStrategy player : players) {
+            if (!player.supports(empty)) {
+                throw new IllegalArgumentException(player.getName() + " does not support " + width + "x" + height
+                        + ", k=" + k);
+            }
+        }
+
+        // For X and O, the time per move in microseconds; the outcomes are X wins, O wins and draws
+        Histogram[] latencyMicros = {new Histogram(), new Histogram()};
+        int[] outcomes = new int[3];
+        for (int game = 0; game < games; game++) {
+            Board board = empty.copy();
+            while (!board.isOver()) {
+                byte toMove = board.getPlayerToMove();
+                int index = toMove - Board.X;
+                long start = System.nanoTime();
+                int move = players[index].chooseMove(board, toMove);
+                latencyMicros[index].record((System.nanoTime() - start) / 1000);
+                board.play(move, toMove);
+            }
+            outcomes[board.getWinner() == Board.EMPTY ? 2 : board.getWinner() - Board.X]++;
+        }
+
+        System.out.printf("%s (X) vs %s (O) on %dx%d, k=%d: %d X wins, %d O wins, %d draws%n",
+                players[0].getName(), players[1].getName(), width, height, k, outcomes[0], outcomes[1], outcomes[2]);
+        for (int index = 0; index < 2; index++) {
+            System.out.printf("%s: %d moves, mean %d us, p99 %d us, max %d us%n", players[index].getName(),
+                    latencyMicros[index].getCount(), latencyMicros[index].getMean(),
+                    latencyMicros[index].getPercentile(0.99), latencyMicros[index].getMax());
+        }
+    }
+
+}
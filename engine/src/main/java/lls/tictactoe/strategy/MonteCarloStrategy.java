@@ -0,0 +1,70 @@
+package lls.tictactoe.strategy;
+
+import lls.tictactoe.engine.Board;
+import lls.tictactoe.engine.MonteCarloSearch;
+import lls.tictactoe.engine.SearchLimits;
+import lls.tictactoe.instrumentation.EngineMetrics;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Plays with a {@link MonteCarloSearch} of one second per move, on any board.
+ * The search owns a single tree, so concurrent moves are searched one after the other; {@link #fork()} creates a
+ * strategy with a tree of its own.
+ * <p>
+ * The registered instance searches the tree with as many threads as the system property
+ * {@code lls.tictactoe.threads} asks for, see {@link SearchPool}.
+ */
+public final class MonteCarloStrategy implements MoveStrategy {
+
+    /**
+     * The number of nodes of the tree of a forked strategy, about 1.5 MB, as many of them may search at once.
+     */
+    private static final int FORK_CAPACITY = 1 << 16;
+
+    private final MonteCarloSearch search;
+
+    public MonteCarloStrategy() {
+        this(SearchPool.get());
+    }
+
+    /**
+     * @param pool The pool whose threads search the tree together with the calling thread, or null to search
+     *             sequentially.
+     */
+    public MonteCarloStrategy(ForkJoinPool pool) {
+        this(pool, MonteCarloSearch.DEFAULT_CAPACITY);
+    }
+
+    private MonteCarloStrategy(ForkJoinPool pool, int capacity) {
+        this.search = new MonteCarloSearch(SearchLimits.ofTime(Duration.ofSeconds(1)), pool, capacity);
+    }
+
+    @Override
+    public String getName() {
+        return "mcts";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Monte Carlo";
+    }
+
+    @Override
+    public int chooseMove(Board board, byte player) {
+        EngineMetrics.Probe probe = EngineMetrics.begin();
+        int move = search.search(board, player).move();
+        EngineMetrics.end(probe, getName(), move);
+        return move;
+    }
+
+    /**
+     * @return A sequential strategy with a smaller tree of its own.
+     */
+    @Override
+    public MoveStrategy fork() {
+        return new MonteCarloStrategy(null, FORK_CAPACITY);
+    }
+
+}
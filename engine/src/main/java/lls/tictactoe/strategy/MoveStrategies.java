@@ -0,0 +1,80 @@
+package lls.tictactoe.strategy;
+
+import lls.tictactoe.engine.Board;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The registry of all {@link MoveStrategy} implementations on the classpath.
+ * <p>
+ * The strategies are loaded once, the first time the registry is used, in the order of the service files.
+ * The built-in strategies come first, from easy to strong.
+ */
+public final class MoveStrategies {
+
+    private MoveStrategies() {
+    }
+
+    /**
+     * @return Every registered strategy.
+     */
+    public static List<MoveStrategy> all() {
+        return Holder.STRATEGIES;
+    }
+
+    /**
+     * @param board A board.
+     * @return The registered strategies which can play on the board.
+     */
+    public static List<MoveStrategy> supporting(Board board) {
+        return Holder.STRATEGIES.stream()
+                .filter(strategy -> strategy.supports(board))
+                .toList();
+    }
+
+    /**
+     * @param name The name of a strategy, in any case.
+     * @return The strategy, or an empty optional if no strategy has the name.
+     */
+    public static Optional<MoveStrategy> find(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        return Holder.STRATEGIES.stream()
+                .filter(strategy -> strategy.getName().equals(key))
+                .findFirst();
+    }
+
+    /**
+     * @param name The name of a strategy, in any case.
+     * @return The strategy.
+     * @throws IllegalArgumentException if no strategy has the name.
+     */
+    public static MoveStrategy get(String name) {
+        return find(name).orElseThrow(() -> new IllegalArgumentException("Unknown strategy: " + name
+                + ", available: " + Holder.STRATEGIES.stream().map(MoveStrategy::getName).collect(Collectors.joining(", "))));
+    }
+
+    private static final class Holder {
+
+        private static final List<MoveStrategy> STRATEGIES = load();
+
+        private static List<MoveStrategy> load() {
+            List<MoveStrategy> strategies = new ArrayList<>();
+            Set<String> names = new HashSet<>();
+            for (MoveStrategy strategy : ServiceLoader.load(MoveStrategy.class, MoveStrategy.class.getClassLoader())) {
+                if (!names.add(strategy.getName())) {
+                    throw new IllegalStateException("Duplicate strategy: " + strategy.getName());
+                }
+                strategies.add(strategy);
+            }
+            return List.copyOf(strategies);
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package lls.tictactoe.strategy;
+
+import lls.tictactoe.engine.Board;
+
+/**
+ * A way of choosing the AI's move: a board goes in, a move comes out.
+ * <p>
+ * Strategies are discovered with {@link java.util.ServiceLoader}, see {@link MoveStrategies}: an implementation
+ * with a public no-argument constructor, listed in
+ * {@code META-INF/services/lls.tictactoe.strategy.MoveStrategy}, can be selected by its name in the game and
+ * in {@link Match} without changing either of them.
+ * <p>
+ * Implementations must be safe to use from several threads at once, as the game searches the answers to all of the
+ * player's possible moves in parallel. A strategy whose searches wait for each other hands out independent copies
+ * for this through {@link #fork()}.
+ */
+public interface MoveStrategy {
+
+    /**
+     * @return The unique name by which the strategy is selected, in lower case, e.g. {@code "unbeatable"}.
+     */
+    String getName();
+
+    /**
+     * @return The name shown to the player, e.g. {@code "Unbeatable"}.
+     */
+    default String getDisplayName() {
+        return getName();
+    }
+
+    /**
+     * @param board A board.
+     * @return true if the strategy can play on boards of this size and rules, false otherwise.
+     */
+    default boolean supports(Board board) {
+        return true;
+    }
+
+    /**
+     * Chooses a move. The board may be used as scratch space, but must be restored before this method returns.
+     *
+     * @param board  The position, which is supported by this strategy.
+     * @param player The player to move ({@link Board#X} or {@link Board#O}).
+     * @return The empty cell to play, or -1 if the game is already over.
+     */
+    int chooseMove(Board board, byte player);
+
+    /**
+     * Guesses the move the opponent will make next, so only the answer to that move needs to be pondered, e.g. the
+     * reply in the principal variation of the last search. The guess must be cheap, as it is made on the thread
+     * which plays the game.
+     *
+     * @param board  The position after this strategy's move.
+     * @param player The opponent, who is to move.
+     * @return The expected empty cell, or -1 if the strategy has no guess.
+     */
+    default int expectMove(Board board, byte player) {
+        return -1;
+    }
+
+    /**
+     * Returns a strategy which plays like this one, but does not wait for the searches of this one, e.g. for
+     * pondering. Strategies which can search several positions at once return themselves.
+     *
+     * @return This strategy, or an independent copy of it.
+     */
+    default MoveStrategy fork() {
+        return this;
+    }
+
+}
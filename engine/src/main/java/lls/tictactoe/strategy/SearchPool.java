@@ -0,0 +1,34 @@
+package lls.tictactoe.strategy;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The pool which the built-in strategies search on, shared by all of them.
+ * <p>
+ * The number of threads per search is set with the system property {@code lls.tictactoe.threads}. By default, and
+ * with a value of 1 or less, the strategies search sequentially on the thread which asks for the move.
+ */
+final class SearchPool {
+
+    /**
+     * The number of threads which search one move, including the calling thread.
+     */
+    static final int THREADS = Integer.getInteger("lls.tictactoe.threads", 1);
+
+    private SearchPool() {
+    }
+
+    /**
+     * @return The pool, created on first use, or null if the strategies search sequentially.
+     */
+    static ForkJoinPool get() {
+        return THREADS > 1 ? Holder.POOL : null;
+    }
+
+    private static final class Holder {
+
+        // The pool threads are daemon threads, so the pool never keeps the JVM alive
+        private static final ForkJoinPool POOL = new ForkJoinPool(THREADS);
+    }
+
+}
@@ -0,0 +1,105 @@
+package lls.tictactoe.strategy;
+
+import lls.tictactoe.engine.Board;
+import lls.tictactoe.engine.ConcurrentTranspositionTable;
+import lls.tictactoe.engine.DeepeningSearch;
+import lls.tictactoe.engine.SearchLimits;
+import lls.tictactoe.engine.Tablebase;
+import lls.tictactoe.engine.TablebaseGenerator;
+import lls.tictactoe.engine.TablebaseSearch;
+import lls.tictactoe.instrumentation.EngineMetrics;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plays perfectly from the generated {@link Tablebase tablebases}, and with a {@link DeepeningSearch} of one second
+ * per move in the positions they do not answer, see {@link TablebaseSearch}.
+ * <p>
+ * The tables are the {@code *.tb} files in the directory the system property {@code lls.tictactoe.tablebases} names,
+ * by default {@code tables}, where the {@link TablebaseGenerator} writes them. They are mapped the first time a
+ * board is checked, and the strategy only supports the boards one of them covers, so it is not offered at all until
+ * a table has been generated.
+ */
+public final class TablebaseStrategy implements MoveStrategy {
+
+    private final DeepeningSearch fallback = new DeepeningSearch(SearchLimits.ofTime(Duration.ofSeconds(1)),
+            SearchPool.get(), new ConcurrentTranspositionTable());
+
+    @Override
+    public String getName() {
+        return "tablebase";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Tablebase";
+    }
+
+    @Override
+    public boolean supports(Board board) {
+        return find(board) != null;
+    }
+
+    @Override
+    public int chooseMove(Board board, byte player) {
+        Tablebase tablebase = find(board);
+        if (tablebase == null) throw new IllegalArgumentException("No tablebase covers the board");
+        EngineMetrics.Probe probe = EngineMetrics.begin();
+        int move = new TablebaseSearch(tablebase, fallback::search).search(board, player).move();
+        EngineMetrics.end(probe, getName(), move);
+        return move;
+    }
+
+    /**
+     * @return The best move of the table, or else the reply the fallback search stored in its transposition table.
+     */
+    @Override
+    public int expectMove(Board board, byte player) {
+        Tablebase tablebase = find(board);
+        if (tablebase != null && player == board.getPlayerToMove() && !board.isOver()
+                && tablebase.getValue(board) != Tablebase.ILLEGAL) {
+            return tablebase.getBestMove(board);
+        }
+        return fallback.getExpectedMove(board, player);
+    }
+
+    private static Tablebase find(Board board) {
+        for (Tablebase tablebase : Tables.LOADED) {
+            if (tablebase.covers(board)) return tablebase;
+        }
+        return null;
+    }
+
+    /**
+     * Holds the tables, which are loaded when this class is first used and stay mapped until the JVM exits.
+     */
+    private static final class Tables {
+
+        static final List<Tablebase> LOADED = load(Path.of(System.getProperty("lls.tictactoe.tablebases", "tables")));
+
+        private static List<Tablebase> load(Path directory) {
+            List<Tablebase> tables = new ArrayList<>();
+            if (!Files.isDirectory(directory)) return tables;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.tb")) {
+                for (Path file : files) {
+                    try {
+                        tables.add(Tablebase.open(file));
+                    } catch (IOException e) {
+                        // One broken table should not take the others with it
+                        System.err.println("Skipping tablebase " + file + ": " + e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Cannot list the tablebases in " + directory + ": " + e.getMessage());
+            }
+            return List.copyOf(tables);
+        }
+    }
+
+}
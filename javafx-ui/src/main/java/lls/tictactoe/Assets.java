@@ -0,0 +1,36 @@
+package lls.tictactoe;
+
+import javafx.scene.image.Image;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The images of the game, decoded once per JVM and shared by every game.
+ */
+final class Assets {
+
+    private static final Map<Tile.State, Image> IMAGES = new EnumMap<>(Tile.State.class);
+
+    static {
+        // Load images for X, O, and NONE states
+        for (Tile.State state : Tile.State.values()) {
+            IMAGES.put(state, new Image(Objects.requireNonNull(Assets.class.getResourceAsStream("/assets/" + state.name() + ".png"))));
+        }
+    }
+
+    private Assets() {
+    }
+
+    /**
+     * Returns the image of a tile state.
+     *
+     * @param state The state of the tile (X, O, or NONE).
+     * @return The decoded image.
+     */
+    static Image image(Tile.State state) {
+        return IMAGES.get(state);
+    }
+
+}
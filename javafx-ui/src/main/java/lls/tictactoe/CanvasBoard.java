@@ -0,0 +1,180 @@
+package lls.tictactoe;
+
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.GridPane;
+import javafx.scene.paint.Color;
+import lls.tictactoe.engine.Board;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * The game screen for large boards, which draws the whole board on a single {@link Canvas}.
+ * <p>
+ * Unlike {@link GameBoard}, which needs a node and a click handler per tile, the scene graph has the same size for
+ * every board: a click is mapped to its cell by dividing the coordinates by the cell size, and a move only redraws
+ * the cells which changed, i.e. the new mark and the previous last move, which loses its highlight.
+ */
+final class CanvasBoard {
+
+    /**
+     * The preferred size of the board in pixels, and the limits of the size of a cell.
+     */
+    private static final double BOARD_SIZE = 640;
+    private static final double MIN_CELL_SIZE = 16;
+    private static final double MAX_CELL_SIZE = 48;
+
+    private static final Color BACKGROUND = Color.WHITE;
+    private static final Color GRID = Color.LIGHTGRAY;
+    private static final Color LAST_MOVE = Color.rgb(255, 235, 150);
+    private static final Color X_COLOR = Color.BLUE;
+    private static final Color O_COLOR = Color.CRIMSON;
+
+    private final Canvas canvas = new Canvas();
+    private final GraphicsContext graphics = canvas.getGraphicsContext2D();
+    private final GridPane layout = new GridPane();
+    private final Label resultLabel = new Label();
+    private final Button rematchButton = new Button("Rematch");
+    private final Button exitButton = new Button("Exit");
+    private final Scene scene;
+
+    private Board board;
+    private double cellSize;
+
+    /**
+     * The cell of the last move, which is highlighted, or -1 if there is none.
+     */
+    private int lastMove = -1;
+
+    /**
+     * Whether the current game has ended, in which case clicks on the board are ignored.
+     */
+    private boolean finished;
+
+    /**
+     * Creates the game screen.
+     *
+     * @param onCellClicked Called with the cell the player clicked, while the game is running.
+     * @param onRematch     Called when the player asks for a rematch.
+     * @param onExit        Called when the player leaves the game.
+     */
+    CanvasBoard(IntConsumer onCellClicked, Runnable onRematch, Runnable onExit) {
+        // Create and configure the layout, the result controls stay hidden until the game ends
+        layout.setAlignment(Pos.CENTER);
+        layout.setHgap(10);
+        layout.setVgap(10);
+        layout.add(resultLabel, 0, 0);
+        layout.add(rematchButton, 1, 0);
+        layout.add(exitButton, 2, 0);
+        layout.add(canvas, 0, 1, 3, 1);
+        rematchButton.setOnAction(_ -> onRematch.run());
+        exitButton.setOnAction(_ -> onExit.run());
+
+        // Map a click to its cell, clicks outside the board (e.g. on the border pixel) are ignored
+        canvas.setOnMouseClicked(event -> {
+            if (finished || board == null) return;
+            int x = (int) (event.getX() / cellSize);
+            int y = (int) (event.getY() / cellSize);
+            if (x < board.getWidth() && y < board.getHeight()) {
+                onCellClicked.accept(board.cell(x, y));
+            }
+        });
+
+        scene = new Scene(layout);
+    }
+
+    /**
+     * Shows a new, empty board and hides the result.
+     *
+     * @param board The board of the new game, which is only read by this screen.
+     */
+    void reset(Board board) {
+        this.board = board;
+        cellSize = Math.clamp(Math.floor(BOARD_SIZE / Math.max(board.getWidth(), board.getHeight())),
+                MIN_CELL_SIZE, MAX_CELL_SIZE);
+        canvas.setWidth(board.getWidth() * cellSize + 1);
+        canvas.setHeight(board.getHeight() * cellSize + 1);
+        lastMove = -1;
+        finished = false;
+        showResultControls(false);
+
+        // The only full redraw, every move after this only redraws the cells it changed
+        graphics.setFill(BACKGROUND);
+        graphics.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        graphics.setStroke(GRID);
+        graphics.setLineWidth(1);
+        for (int x = 0; x <= board.getWidth(); x++) {
+            graphics.strokeLine(x * cellSize + 0.5, 0, x * cellSize + 0.5, board.getHeight() * cellSize);
+        }
+        for (int y = 0; y <= board.getHeight(); y++) {
+            graphics.strokeLine(0, y * cellSize + 0.5, board.getWidth() * cellSize, y * cellSize + 0.5);
+        }
+    }
+
+    /**
+     * Draws the mark which was just placed on a cell, and highlights it as the last move.
+     *
+     * @param cell The cell which was changed.
+     */
+    void update(int cell) {
+        int previous = lastMove;
+        lastMove = cell;
+        if (previous != -1) drawCell(previous);
+        drawCell(cell);
+    }
+
+    /**
+     * Ends the game, which disables the board and shows the result above it.
+     *
+     * @param resultText The text describing the result.
+     */
+    void showResult(String resultText) {
+        finished = true;
+        resultLabel.setText(resultText);
+        showResultControls(true);
+    }
+
+    Scene getScene() {
+        return scene;
+    }
+
+    /**
+     * Redraws the inside of a cell, the grid lines around it are left untouched.
+     */
+    private void drawCell(int cell) {
+        double left = (cell % board.getWidth()) * cellSize + 1;
+        double top = (cell / board.getWidth()) * cellSize + 1;
+        double size = cellSize - 1;
+        graphics.setFill(cell == lastMove ? LAST_MOVE : BACKGROUND);
+        graphics.fillRect(left, top, size, size);
+
+        double margin = Math.max(3, size * 0.2);
+        graphics.setLineWidth(Math.max(2, size / 12));
+        switch (board.get(cell)) {
+            case Board.X -> {
+                graphics.setStroke(X_COLOR);
+                graphics.strokeLine(left + margin, top + margin, left + size - margin, top + size - margin);
+                graphics.strokeLine(left + size - margin, top + margin, left + margin, top + size - margin);
+            }
+            case Board.O -> {
+                graphics.setStroke(O_COLOR);
+                graphics.strokeOval(left + margin, top + margin, size - 2 * margin, size - 2 * margin);
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void showResultControls(boolean visible) {
+        for (var control : List.of(resultLabel, rematchButton, exitButton)) {
+            control.setVisible(visible);
+            control.setManaged(visible);
+        }
+    }
+
+}
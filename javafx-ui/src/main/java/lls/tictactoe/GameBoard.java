@@ -0,0 +1,195 @@
+package lls.tictactoe;
+
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tooltip;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.GridPane;
+import javafx.scene.paint.Color;
+import lls.tictactoe.engine.MoveAnalysis;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The game screen, which shows the board during a game and the result next to it once the game has ended.
+ * Below the board, the player can turn on hints, which highlight the outcome of every free tile.
+ * <p>
+ * The scene, the tiles and their ImageViews are created once and reset in place for every game, so a rematch
+ * neither decodes images nor builds a new scene graph.
+ */
+final class GameBoard {
+
+    private final Tile[] tiles = new Tile[9];
+    private final ImageView[] imageViews = new ImageView[9];
+    private final GridPane layout = new GridPane();
+    private final Label resultLabel = new Label();
+    private final Button rematchButton = new Button("Rematch");
+    private final Button exitButton = new Button("Exit");
+    private final CheckBox hintsBox = new CheckBox("Show hints");
+    private final Tooltip[] hints = new Tooltip[9];
+    private final Scene scene;
+
+    /**
+     * Whether the current game has ended, in which case clicks on the board are ignored.
+     */
+    private boolean finished;
+
+    /**
+     * Creates the game screen.
+     *
+     * @param onTileClicked  Called with the tile the player clicked, while the game is running.
+     * @param onRematch      Called when the player asks for a rematch.
+     * @param onExit         Called when the player leaves the game.
+     * @param onHintsToggled Called when the player turns the hints on or off.
+     */
+    GameBoard(Consumer<Tile> onTileClicked, Runnable onRematch, Runnable onExit, Runnable onHintsToggled) {
+        // Create and configure the layout for the game board
+        layout.setAlignment(Pos.CENTER);
+        layout.setPrefSize(400, 400);
+
+        // Initialize the game board with ImageViews and Tiles, the result controls stay hidden until the game ends
+        layout.add(resultLabel, 0, 0);
+        layout.add(rematchButton, 1, 0);
+        layout.add(exitButton, 2, 0);
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                final Tile tile = new Tile(i * 3 + j);
+                final ImageView imageView = new ImageView(Assets.image(Tile.State.NONE));
+                tiles[tile.getPosition()] = tile;
+                imageViews[tile.getPosition()] = imageView;
+                hints[tile.getPosition()] = new Tooltip();
+                layout.add(imageView, i, j + 1);
+                imageView.setOnMouseClicked(_ -> {
+                    if (!finished) onTileClicked.accept(tile);
+                });
+            }
+        }
+        layout.add(hintsBox, 0, 4, 3, 1);
+        rematchButton.setOnAction(_ -> onRematch.run());
+        exitButton.setOnAction(_ -> onExit.run());
+        hintsBox.setOnAction(_ -> onHintsToggled.run());
+
+        scene = new Scene(layout);
+        reset();
+    }
+
+    /**
+     * Clears the board for a new game and hides the result.
+     */
+    void reset() {
+        for (int position = 0; position < tiles.length; position++) {
+            tiles[position].reset();
+            imageViews[position].setImage(Assets.image(Tile.State.NONE));
+        }
+        clearHints();
+        showResultControls(false);
+        layout.setHgap(0);
+        layout.setVgap(0);
+        finished = false;
+    }
+
+    /**
+     * Shows the image of a tile's current state.
+     *
+     * @param tile The tile which was changed.
+     */
+    void update(Tile tile) {
+        imageViews[tile.getPosition()].setImage(Assets.image(tile.getState()));
+    }
+
+    /**
+     * Ends the game, which disables the board and shows the result next to it.
+     *
+     * @param resultText The text describing the result.
+     */
+    void showResult(String resultText) {
+        finished = true;
+        clearHints();
+        resultLabel.setText(resultText);
+        layout.setHgap(10);
+        layout.setVgap(10);
+        showResultControls(true);
+    }
+
+    /**
+     * @return true if the player wants to see hints, false otherwise.
+     */
+    boolean isHintsEnabled() {
+        return hintsBox.isSelected();
+    }
+
+    /**
+     * Highlights every free tile by the outcome of playing it: green for a win, yellow for a draw and red for a
+     * loss. The tooltip of the tile tells how many moves it takes until the game is decided.
+     *
+     * @param analysis The analysis of the position, from the point of view of the player.
+     */
+    void showHints(MoveAnalysis analysis) {
+        for (int position = 0; position < tiles.length; position++) {
+            if (!analysis.isLegal(position)) {
+                clearHint(position);
+                continue;
+            }
+            int distance = analysis.getDistance(position);
+            String moves = distance == 1 ? "1 move" : distance + " moves";
+            switch (analysis.getOutcome(position)) {
+                case WIN -> showHint(position, Color.LIMEGREEN, "Win after " + moves);
+                case DRAW -> showHint(position, Color.GOLD, "Draw");
+                case LOSS -> showHint(position, Color.CRIMSON, "Loss after " + moves);
+            }
+        }
+    }
+
+    /**
+     * Removes all hints.
+     */
+    void clearHints() {
+        for (int position = 0; position < tiles.length; position++) {
+            clearHint(position);
+        }
+    }
+
+    private void showHint(int position, Color color, String text) {
+        imageViews[position].setEffect(new DropShadow(20, color));
+        hints[position].setText(text);
+        Tooltip.install(imageViews[position], hints[position]);
+    }
+
+    private void clearHint(int position) {
+        imageViews[position].setEffect(null);
+        Tooltip.uninstall(imageViews[position], hints[position]);
+    }
+
+    private void showResultControls(boolean visible) {
+        for (var control : List.of(resultLabel, rematchButton, exitButton)) {
+            control.setVisible(visible);
+            control.setManaged(visible);
+        }
+    }
+
+    /**
+     * @param position The position of the tile.
+     * @return The tile at the position.
+     */
+    Tile getTile(int position) {
+        return tiles[position];
+    }
+
+    /**
+     * @return The tiles of the board, sorted by their position.
+     */
+    List<Tile> getTiles() {
+        return Arrays.asList(tiles);
+    }
+
+    Scene getScene() {
+        return scene;
+    }
+
+}
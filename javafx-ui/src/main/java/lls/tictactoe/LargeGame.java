@@ -0,0 +1,216 @@
+package lls.tictactoe;
+
+import javafx.concurrent.Task;
+import lls.tictactoe.engine.Board;
+import lls.tictactoe.engine.Ponderer;
+import lls.tictactoe.history.GameRecord;
+import lls.tictactoe.strategy.MoveStrategy;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * A game on a board larger than 3x3, e.g. 15x15 with 5 in a row, shown by a {@link CanvasBoard}.
+ * <p>
+ * The AI plays with any {@link MoveStrategy} which supports the board. Finished games are handed to the game log
+ * like the classic ones. Hints only exist for the classic board, whose positions can be solved completely.
+ * <p>
+ * The player has up to hundreds of replies near the existing marks, so the AI only ponders the one its strategy
+ * expects, see {@link MoveStrategy#expectMove(Board, byte)}, e.g. the reply in the principal variation of the last
+ * search. If the player makes that move, the AI continues the pondering search; otherwise it searches from scratch.
+ */
+final class LargeGame {
+
+    private final ExecutorService aiExecutor;
+    private final Consumer<GameRecord> onGameOver;
+    private final CanvasBoard canvasBoard;
+
+    /**
+     * The AI's move which is currently being searched, or null if it is the player's turn.
+     * Only accessed on the JavaFX application thread, like the board.
+     */
+    private Task<Integer> aiTask;
+
+    /**
+     * The AI's answer to the player's expected move, searched while it is the player's turn.
+     */
+    private final Ponderer ponderer;
+
+    private Board board;
+    private MoveStrategy strategy;
+    private byte player;
+    private byte ai;
+
+    /**
+     * The moves of the current game, in the order they were played.
+     */
+    private int[] moves;
+    private int moveCount;
+
+    /**
+     * @param aiExecutor The executor which searches the AI's moves.
+     * @param onGameOver Called with every finished game, to save it.
+     * @param onRematch  Called when the player asks for a rematch.
+     * @param onExit     Called when the player leaves the game.
+     */
+    LargeGame(ExecutorService aiExecutor, Consumer<GameRecord> onGameOver, Runnable onRematch, Runnable onExit) {
+        this.aiExecutor = aiExecutor;
+        this.onGameOver = onGameOver;
+        this.ponderer = new Ponderer(aiExecutor);
+        this.canvasBoard = new CanvasBoard(this::playerMove, () -> {
+            cancel();
+            onRematch.run();
+        }, () -> {
+            cancel();
+            onExit.run();
+        });
+    }
+
+    /**
+     * Starts a game. If the player chose O, the AI makes the first move.
+     *
+     * @param board    The empty board.
+     * @param strategy The strategy of the AI, which supports the board.
+     * @param player   The mark of the player ({@link Board#X} or {@link Board#O}).
+     */
+    void start(Board board, MoveStrategy strategy, byte player) {
+        cancel();
+        this.board = board;
+        this.strategy = strategy;
+        this.player = player;
+        this.ai = Board.opponent(player);
+        this.moves = new int[board.size()];
+        this.moveCount = 0;
+        canvasBoard.reset(board);
+        if (player == Board.O) moveAI(null);
+    }
+
+    /**
+     * Cancels the AI's move if it is still being searched, e.g. because the game is left.
+     */
+    void cancel() {
+        ponderer.cancel();
+        if (aiTask != null) {
+            aiTask.cancel();
+            aiTask = null;
+        }
+    }
+
+    CanvasBoard getCanvasBoard() {
+        return canvasBoard;
+    }
+
+    private void playerMove(int cell) {
+        // Ignore clicks while the AI is searching its move, and clicks on occupied cells
+        if (aiTask != null || board.get(cell) != Board.EMPTY) return;
+        // Use the answer pondered for this move if there is one, the pondering is over either way
+        Future<Integer> pondered = ponderer.take(cell);
+        place(cell, player);
+        if (!board.isOver()) {
+            moveAI(pondered);
+        } else if (pondered != null) {
+            pondered.cancel(true);
+        }
+    }
+
+    /**
+     * Makes the AI's move. If the move was pondered and the search is already done, the move is made right away.
+     * Otherwise, the move is chosen on a background thread, either by waiting for the pondering search or by a new
+     * search, and made on the JavaFX application thread.
+     *
+     * @param pondered The search which pondered the answer to the player's last move, or null if there is none.
+     */
+    private void moveAI(Future<Integer> pondered) {
+        // Answer immediately if the pondering search has already finished
+        if (pondered != null && pondered.state() == Future.State.SUCCESS) {
+            performAIMove(pondered.resultNow());
+            return;
+        }
+
+        // The strategy only gets a copy, so the board is never shared with the background thread
+        Board position = board.copy();
+        MoveStrategy strategy = this.strategy;
+        byte ai = this.ai;
+        Task<Integer> task = new Task<>() {
+            @Override
+            protected Integer call() throws Exception {
+                if (pondered != null && !pondered.isCancelled()) {
+                    // Continue the search which is already partly done
+                    try {
+                        return pondered.get();
+                    } catch (InterruptedException e) {
+                        pondered.cancel(true);
+                        throw e;
+                    } catch (ExecutionException _) {
+                        // Search again below
+                    }
+                }
+                return strategy.chooseMove(position, ai);
+            }
+        };
+        task.setOnSucceeded(_ -> {
+            aiTask = null;
+            performAIMove(task.getValue());
+        });
+        // The game cannot go on without the AI's move, so it ends with an error, and a rematch starts a new one
+        task.setOnFailed(_ -> {
+            aiTask = null;
+            System.err.println("AI move failed: " + task.getException());
+            canvasBoard.showResult("The AI failed");
+        });
+
+        aiTask = task;
+        aiExecutor.execute(task);
+    }
+
+    private void performAIMove(int move) {
+        if (move == -1) return;
+        place(move, ai);
+        if (!board.isOver()) startPondering();
+    }
+
+    /**
+     * Starts searching the AI's answer to the move the strategy expects the player to make, see {@link Ponderer}.
+     */
+    private void startPondering() {
+        if (!TicTacToe.PONDER) return;
+        Board position = board.copy();
+        int reply = strategy.expectMove(position, player);
+        if (reply == -1) return;
+        position.play(reply, player);
+        MoveStrategy ponderStrategy = strategy.fork();
+        byte ai = this.ai;
+        ponderer.ponder(reply, () -> ponderStrategy.chooseMove(position, ai));
+    }
+
+    private void place(int cell, byte mark) {
+        board.play(cell, mark);
+        moves[moveCount++] = cell;
+        canvasBoard.update(cell);
+        if (!board.isOver()) return;
+        String resultText = switch (board.getWinner()) {
+            case Board.X -> "X won";
+            case Board.O -> "O won";
+            default -> "Draw";
+        };
+        canvasBoard.showResult(resultText);
+        saveGame();
+    }
+
+    private void saveGame() {
+        String x = ai == Board.X ? strategy.getName() : null;
+        String o = ai == Board.O ? strategy.getName() : null;
+        Tile.State winner = switch (board.getWinner()) {
+            case Board.X -> Tile.State.X;
+            case Board.O -> Tile.State.O;
+            default -> Tile.State.NONE;
+        };
+        onGameOver.accept(new GameRecord(Instant.now(), board.getWidth(), board.getHeight(), board.getK(), x, o,
+                winner, Arrays.copyOf(moves, moveCount)));
+    }
+
+}
@@ -0,0 +1,565 @@
+package lls.tictactoe;
+
+import javafx.application.Application;
+import javafx.concurrent.Task;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.GridPane;
+import javafx.stage.Stage;
+import lls.tictactoe.engine.Bitboard;
+import lls.tictactoe.engine.Board;
+import lls.tictactoe.engine.LineTracker;
+import lls.tictactoe.engine.MoveAnalysis;
+import lls.tictactoe.engine.Ponderer;
+import lls.tictactoe.engine.SolvedTable;
+import lls.tictactoe.history.GameRecord;
+import lls.tictactoe.history.GameRepository;
+import lls.tictactoe.strategy.MoveStrategies;
+import lls.tictactoe.strategy.MoveStrategy;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class TicTacToe extends Application {
+
+    /**
+     * Whether the AI searches its answers to all possible moves while the player is thinking.
+     * Disabled with {@code -Dlls.tictactoe.ponder=false}.
+     */
+    static final boolean PONDER = Boolean.parseBoolean(System.getProperty("lls.tictactoe.ponder", "true"));
+
+    /**
+     * The primary stage for this application.
+     * This stage is used to display the various scenes of the Tic-Tac-Toe game.
+     */
+    private Stage stage;
+
+    /**
+     * The executor which searches the AI's moves, one virtual thread per move.
+     */
+    private final ExecutorService aiExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * The AI's move which is currently being searched, or null if it is the player's turn.
+     * Only accessed on the JavaFX application thread.
+     */
+    private Task<Integer> aiTask;
+
+    /**
+     * The AI's answers to the player's possible moves, searched while it is the player's turn.
+     */
+    private final Ponderer ponderer = new Ponderer(aiExecutor);
+
+    /**
+     * Tracks the lines of the current game, so the end of the game is detected by only looking at the last move.
+     * It is reset for every game.
+     */
+    private final LineTracker lineTracker = new LineTracker(3, 3, 3);
+
+    /**
+     * The screens of the game, created once in {@link #start(Stage)} and reused for every game.
+     */
+    private Scene boardScene;
+    private Scene difficultyScene;
+    private final List<Button> strategyButtons = new ArrayList<>();
+    private Scene symbolScene;
+    private GameBoard gameBoard;
+
+    /**
+     * Plays the games on boards larger than 3x3, on its own screen.
+     */
+    private LargeGame largeGame;
+
+    /**
+     * Stores every finished game, or null if the log could not be opened.
+     */
+    private GameRepository gameRepository;
+
+    /**
+     * Writes the finished games to the log one after the other, so saving never blocks the JavaFX application
+     * thread. Unlike the AI's searches it is not interrupted on exit, as an interrupted write closes the log.
+     */
+    private final ExecutorService logExecutor = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("game-log").factory());
+
+    /**
+     * The moves of the current game, in the order they were played.
+     */
+    private final int[] moves = new int[9];
+    private int moveCount;
+
+    /**
+     * The settings of the current game. The board is boardSize x boardSize, with winLength marks in a row to win.
+     */
+    private int boardSize = 3;
+    private int winLength = 3;
+    private MoveStrategy strategy;
+    private Tile.State playerStateType;
+    private Tile.State aiStateType;
+
+    @Override
+    public void init() {
+        // Read the solved table before the first game, so the first Unbeatable move does not have to wait for it
+        SolvedTable.getDefault();
+
+        // Open the game log, the game is still playable without it
+        try {
+            gameRepository = GameRepository.open(GameRepository.defaultPath());
+        } catch (IOException e) {
+            System.err.println("Games will not be saved: " + e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        // Abort a running search, so the JVM does not wait for it
+        cancelAIMove();
+        if (largeGame != null) largeGame.cancel();
+        aiExecutor.shutdownNow();
+        // Wait for the games which are still being saved
+        logExecutor.close();
+        if (gameRepository != null) {
+            try {
+                gameRepository.close();
+            } catch (IOException e) {
+                System.err.println("Could not save the games: " + e);
+            }
+        }
+    }
+
+    @Override
+    public void start(Stage stage) {
+
+        // Store the primary stage for this application
+        this.stage = stage;
+
+        // Build the screens once, every game and rematch reuses them
+        boardScene = createBoardScene();
+        difficultyScene = createDifficultyScene();
+        symbolScene = createSymbolScene();
+        gameBoard = new GameBoard(this::playerMove, () -> {
+            cancelAIMove();
+            showScene(boardScene);
+        }, () -> {
+            cancelAIMove();
+            stage.close();
+        }, this::updateHints);
+        largeGame = new LargeGame(aiExecutor, this::saveGame, () -> showScene(boardScene), stage::close);
+
+        // Set the title and scene for the primary stage and show it
+        stage.setTitle("TicTacToe");
+        stage.setScene(boardScene);
+        stage.show();
+    }
+
+    /**
+     * Shows a screen, and fits the window to it, as the game screens differ in size with the board.
+     *
+     * @param scene The screen to show.
+     */
+    private void showScene(Scene scene) {
+        stage.setScene(scene);
+        stage.sizeToScene();
+    }
+
+    /**
+     * Creates the screen which lets the user choose the size of the board.
+     *
+     * @return The board selection scene.
+     */
+    private Scene createBoardScene() {
+        // Create a label for board selection
+        Label boardSelectionLabel = new Label("Choose the Board:");
+
+        // Create buttons for the classic board and some larger boards
+        Button boardSelection3 = new Button("3x3");
+        Button boardSelection7 = new Button("7x7 (4 in a row)");
+        Button boardSelection15 = new Button("15x15 (5 in a row)");
+        Button boardSelection19 = new Button("19x19 (5 in a row)");
+
+        // Set actions for the board buttons to continue with the difficulty selection
+        boardSelection3.setOnAction(_ -> boardSetup(3, 3));
+        boardSelection7.setOnAction(_ -> boardSetup(7, 4));
+        boardSelection15.setOnAction(_ -> boardSetup(15, 5));
+        boardSelection19.setOnAction(_ -> boardSetup(19, 5));
+
+        // Create and configure the layout for the board selection screen
+        GridPane layout = new GridPane();
+        layout.setAlignment(Pos.CENTER);
+        layout.setPrefSize(550, 100);
+        layout.setHgap(15);
+        layout.add(boardSelectionLabel, 0, 0);
+        layout.add(boardSelection3, 1, 0);
+        layout.add(boardSelection7, 2, 0);
+        layout.add(boardSelection15, 3, 0);
+        layout.add(boardSelection19, 4, 0);
+
+        return new Scene(layout);
+    }
+
+    /**
+     * Creates the screen which lets the user choose the difficulty, i.e. the strategy of the AI.
+     * There is a button for every registered {@link MoveStrategy}, see {@link MoveStrategies}.
+     *
+     * @return The difficulty selection scene.
+     */
+    private Scene createDifficultyScene() {
+        // Create a label for difficulty selection
+        Label difficultySelectionLabel = new Label("Choose the Difficulty:");
+
+        // Create and configure the layout for the difficulty selection screen
+        GridPane layout = new GridPane();
+        layout.setAlignment(Pos.CENTER);
+        layout.setPrefSize(550, 100);
+        layout.setHgap(15);
+        layout.add(difficultySelectionLabel, 0, 0);
+
+        // Create a button for each strategy, which sets up the game with it
+        for (MoveStrategy strategy : MoveStrategies.all()) {
+            Button strategySelection = new Button(strategy.getDisplayName());
+            strategySelection.setUserData(strategy);
+            strategySelection.setOnAction(_ -> gameSetup(strategy));
+            strategyButtons.add(strategySelection);
+            layout.add(strategySelection, strategyButtons.size(), 0);
+        }
+
+        return new Scene(layout);
+    }
+
+    /**
+     * Creates the screen which lets the user choose their symbol (X or O).
+     *
+     * @return The symbol selection scene.
+     */
+    private Scene createSymbolScene() {
+        // Create a label for symbol selection
+        Label typeSelectionLabel = new Label("Choose your symbol:");
+
+        // Create buttons for symbol selection
+        Button typeSelectionX = new Button("X");
+        Button typeSelectionO = new Button("O");
+
+        // Set actions for the buttons to start the game with the selected symbol
+        typeSelectionX.setOnAction(_ -> startGame(Tile.State.X, Tile.State.O));
+        typeSelectionO.setOnAction(_ -> startGame(Tile.State.O, Tile.State.X));
+
+        // Create and configure the layout for the symbol selection screen
+        GridPane layout = new GridPane();
+        layout.setAlignment(Pos.CENTER);
+        layout.setPrefSize(250, 100);
+        layout.setHgap(15);
+        layout.add(typeSelectionLabel, 0, 0);
+        layout.add(typeSelectionX, 1, 0);
+        layout.add(typeSelectionO, 2, 0);
+
+        return new Scene(layout);
+    }
+
+    /**
+     * Sets up the game by allowing the user to choose the difficulty.
+     *
+     * @param boardSize The width and height of the board.
+     * @param winLength The number of marks in a row needed to win.
+     */
+    private void boardSetup(int boardSize, int winLength) {
+        this.boardSize = boardSize;
+        this.winLength = winLength;
+
+        // Only offer the strategies which can play on this board
+        Board board = new Board(boardSize, boardSize, winLength);
+        for (Button strategySelection : strategyButtons) {
+            strategySelection.setDisable(!((MoveStrategy) strategySelection.getUserData()).supports(board));
+        }
+        showScene(difficultyScene);
+    }
+
+    /**
+     * Sets up the game by allowing the user to choose their symbol (X or O).
+     *
+     * @param strategy The strategy of the AI.
+     */
+    private void gameSetup(MoveStrategy strategy) {
+        this.strategy = strategy;
+        showScene(symbolScene);
+    }
+
+    /**
+     * Starts the Tic-Tac-Toe game with the chosen strategy and the specified player/AI symbols.
+     *
+     * @param playerStateType The state (X or O) representing the player's symbol.
+     * @param aiStateType     The state (X or O) representing the AI's symbol.
+     */
+    private void startGame(Tile.State playerStateType, Tile.State aiStateType) {
+        this.playerStateType = playerStateType;
+        this.aiStateType = aiStateType;
+
+        // Larger boards are drawn on a canvas and played by a search instead
+        if (boardSize != 3) {
+            largeGame.start(new Board(boardSize, boardSize, winLength), strategy, Board.of(playerStateType));
+            showScene(largeGame.getCanvasBoard().getScene());
+            return;
+        }
+
+        // Clear the board, the lines and the moves of the previous game
+        gameBoard.reset();
+        lineTracker.reset();
+        moveCount = 0;
+
+        // Show the game scene
+        showScene(gameBoard.getScene());
+
+        // If the player chose O, the AI makes the first move, otherwise it already thinks about its answer
+        if (playerStateType.equals(Tile.State.O)) {
+            moveAI(null);
+        } else {
+            updateHints();
+            startPondering();
+        }
+    }
+
+    /**
+     * Handles a click of the player on a tile.
+     *
+     * @param tile The tile which was clicked.
+     */
+    private void playerMove(Tile tile) {
+        // Ignore clicks while the AI is searching its move
+        if (aiTask != null) return;
+        // Handle player move
+        if (tile.changeState(playerStateType)) {
+            gameBoard.clearHints();
+            gameBoard.update(tile);
+            if (potentialGameEnd(tile)) return;
+            // Execute AI move after player move, using the answer pondered for this move if there is one
+            moveAI(ponderer.take(tile.getPosition()));
+        }
+    }
+
+    /**
+     * Checks if the game has potentially ended by evaluating the last move.
+     * <p>
+     * This method records the move in the line tracker and checks if it completed a line or if the game is a draw.
+     * If either condition is met, it ends the game and returns true.
+     * Otherwise, it returns false.
+     *
+     * @param lastMove The tile which was just occupied.
+     * @return true if the game has ended (either a win or a draw), false otherwise.
+     */
+    private boolean potentialGameEnd(Tile lastMove) {
+        // Check if the last move completed a line
+        moves[moveCount++] = lastMove.getPosition();
+        lineTracker.place(lastMove);
+        Tile.State endState = lineTracker.getWinnerState();
+        if (!endState.equals(Tile.State.NONE)) {
+            // End the game if a winning state is detected
+            endGame(endState);
+            return true;
+        }
+        // Check if the game is a draw
+        if (lineTracker.isFull()) {
+            // End the game if a draw is detected
+            endGame(Tile.State.NONE);
+            return true;
+        }
+        // Return false if the game has not ended
+        return false;
+    }
+
+    /**
+     * Executes the AI's move chosen by the selected strategy.
+     * <p>
+     * If the move was pondered and the search is already done, the move is made right away. Otherwise, the move is
+     * chosen on a background thread, either by waiting for the pondering search or by a new search, so the UI stays
+     * responsive no matter how long the search takes. The board does not accept clicks until the move has been made
+     * on the JavaFX application thread.
+     *
+     * @param pondered The search which pondered the answer to the player's last move, or null if there is none.
+     * @throws NullPointerException if the strategy is null.
+     */
+    private void moveAI(Future<Integer> pondered) {
+        MoveStrategy strategy = Objects.requireNonNull(this.strategy, "Strategy was null");
+        byte ai = Board.of(aiStateType);
+
+        // Answer immediately if the pondering search has already finished
+        if (pondered != null && pondered.state() == Future.State.SUCCESS) {
+            int move = pondered.resultNow();
+            if (move != -1) performAIMove(gameBoard.getTile(move));
+            return;
+        }
+
+        // Take a snapshot of the board, so the background thread never touches the tiles of the UI
+        Board position = snapshot();
+
+        Task<Integer> task = new Task<>() {
+            @Override
+            protected Integer call() throws Exception {
+                if (pondered != null && !pondered.isCancelled()) {
+                    // Continue the search which is already partly done
+                    try {
+                        return pondered.get();
+                    } catch (InterruptedException e) {
+                        pondered.cancel(true);
+                        throw e;
+                    } catch (ExecutionException _) {
+                        // Search again below
+                    }
+                }
+                return strategy.chooseMove(position, ai);
+            }
+        };
+
+        // Publish the chosen move on the JavaFX application thread
+        task.setOnSucceeded(_ -> {
+            aiTask = null;
+            int move = task.getValue();
+            if (move == -1) return;
+            performAIMove(gameBoard.getTile(move));
+        });
+        // The game cannot go on without the AI's move, so it ends with an error, and a rematch starts a new one
+        task.setOnFailed(_ -> {
+            aiTask = null;
+            ponderer.cancel();
+            System.err.println("AI move failed: " + task.getException());
+            gameBoard.showResult("The AI failed");
+        });
+
+        aiTask = task;
+        aiExecutor.execute(task);
+    }
+
+    /**
+     * Cancels the AI's move if it is still being searched, e.g. because the game is left.
+     * A cancelled move is never published to the board.
+     */
+    private void cancelAIMove() {
+        ponderer.cancel();
+        if (aiTask != null) {
+            aiTask.cancel();
+            aiTask = null;
+        }
+    }
+
+    /**
+     * Performs the AI's move on the Tic-Tac-Toe board and checks for game end conditions.
+     *
+     * @param targetTile The tile the AI occupies.
+     * @throws IllegalStateException if the target tile is already occupied.
+     */
+    private void performAIMove(Tile targetTile) {
+        // Attempt to change the state of the target tile to the AI's state
+        if (!targetTile.changeState(aiStateType)) {
+            throw new IllegalStateException("Tile which was not occupied, is now suddenly occupied");
+        }
+        // Update the target ImageView based on the new state of the tile
+        gameBoard.update(targetTile);
+
+        // Check if the game has ended after the AI's move, otherwise think about the player's possible moves
+        if (!potentialGameEnd(targetTile)) {
+            updateHints();
+            startPondering();
+        }
+    }
+
+    /**
+     * Shows the outcome of every move the player can make, if the player turned the hints on.
+     * The analysis of a position is computed once and cached, see {@link MoveAnalysis}.
+     */
+    private void updateHints() {
+        // Hints are only shown while it is the player's turn
+        if (!gameBoard.isHintsEnabled() || aiTask != null || lineTracker.isOver()) {
+            gameBoard.clearHints();
+            return;
+        }
+        List<Tile> tiles = gameBoard.getTiles();
+        gameBoard.showHints(MoveAnalysis.of(Bitboard.mask(tiles, playerStateType), Bitboard.mask(tiles, aiStateType)));
+    }
+
+    /**
+     * Starts searching the AI's answer to every move the player can make next, see {@link Ponderer}.
+     */
+    private void startPondering() {
+        if (!PONDER) return;
+        MoveStrategy strategy = this.strategy;
+        byte ai = Board.of(aiStateType);
+        for (Tile reply : gameBoard.getTiles()) {
+            if (reply.isOccupied()) continue;
+            // Take a snapshot of the board with the player's possible move on it
+            Board position = snapshot();
+            position.play(reply.getPosition(), Board.of(playerStateType));
+            // Every reply gets its own strategy, so strategies which search one position at a time do not make the
+            // replies wait for each other
+            MoveStrategy ponderStrategy = strategy.fork();
+            ponderer.ponder(reply.getPosition(), () -> ponderStrategy.chooseMove(position, ai));
+        }
+    }
+
+    /**
+     * @return A copy of the classic board, which the strategies can use on any thread.
+     */
+    private Board snapshot() {
+        List<Tile> tiles = gameBoard.getTiles();
+        return Board.fromBitboards(Bitboard.mask(tiles, Tile.State.X), Bitboard.mask(tiles, Tile.State.O));
+    }
+
+    /**
+     * Ends the game and displays the result.
+     *
+     * @param endState The state of the game at the end (X, O, or NONE for draw).
+     */
+    private void endGame(Tile.State endState) {
+        // The player's last move may have ended the game while the answers to it were still being pondered
+        ponderer.cancel();
+
+        // Determine the winner text based on the end state
+        String winnerText = switch (endState) {
+            case X -> "X won";
+            case O -> "O won";
+            case NONE -> "Draw";
+        };
+
+        // Show the result next to the board, which no longer accepts moves
+        gameBoard.showResult(winnerText);
+
+        saveGame(endState);
+    }
+
+    /**
+     * Appends the finished game to the game log, with the AI recorded by the name of its strategy.
+     *
+     * @param endState The state of the game at the end (X, O, or NONE for draw).
+     */
+    private void saveGame(Tile.State endState) {
+        String x = aiStateType.equals(Tile.State.X) ? strategy.getName() : null;
+        String o = aiStateType.equals(Tile.State.O) ? strategy.getName() : null;
+        saveGame(new GameRecord(Instant.now(), 3, 3, 3, x, o, endState, Arrays.copyOf(moves, moveCount)));
+    }
+
+    /**
+     * Appends a finished game to the game log in the background. A failure is reported, but does not interrupt
+     * the game.
+     *
+     * @param game The finished game.
+     */
+    private void saveGame(GameRecord game) {
+        if (gameRepository == null) return;
+        GameRepository repository = gameRepository;
+        logExecutor.execute(() -> {
+            try {
+                repository.save(game);
+                repository.flush();
+            } catch (IOException e) {
+                System.err.println("Could not save the game: " + e);
+            }
+        });
+    }
+
+}